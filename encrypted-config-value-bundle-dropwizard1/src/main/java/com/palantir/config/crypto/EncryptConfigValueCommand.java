@@ -16,6 +16,7 @@
 
 package com.palantir.config.crypto;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
 import com.palantir.config.crypto.algorithm.Algorithm;
 import com.palantir.config.crypto.util.SystemProxy;
@@ -31,6 +32,7 @@ public final class EncryptConfigValueCommand extends Command {
 
     public static final String KEYFILE = "keyfile";
     public static final String VALUE = "value";
+    public static final String FORMAT = "format";
     private final SystemProxy systemProxy;
 
     public EncryptConfigValueCommand(String name) {
@@ -62,16 +64,25 @@ public final class EncryptConfigValueCommand extends Command {
             .type(String.class)
             .dest(VALUE)
             .help("The value to encrypt");
+
+        subparser.addArgument("-f", "--format")
+            .required(false)
+            .type(EncryptedValue.StringFormat.class)
+            .dest(FORMAT)
+            .setDefault(EncryptedValue.StringFormat.JSON)
+            .help("The format of the encrypted value: JSON (\"enc:\") or the more compact BINARY (\"enc2:\")");
     }
 
     @Override
     public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
         String keyfile = namespace.getString(KEYFILE);
         String value = namespace.getString(VALUE);
+        EncryptedValue.StringFormat format =
+                MoreObjects.firstNonNull(namespace.get(FORMAT), EncryptedValue.StringFormat.JSON);
 
         KeyWithType keyWithType = getEncryptionKey(keyfile);
         Algorithm algorithm = keyWithType.getType().getAlgorithm();
-        EncryptedValue encryptedValue = algorithm.newEncrypter().encrypt(keyWithType, value);
+        String encryptedValue = algorithm.newEncrypter().encryptToString(keyWithType, value, format);
 
         // print the resulting encrypted value to the console
         System.out.println(encryptedValue);
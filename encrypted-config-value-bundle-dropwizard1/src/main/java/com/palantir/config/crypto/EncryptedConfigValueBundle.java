@@ -22,11 +22,13 @@ import com.palantir.config.crypto.jackson.JsonNodeVisitor;
 import com.palantir.config.crypto.util.SystemProxy;
 import io.dropwizard.Bundle;
 import io.dropwizard.Configuration;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 
 public final class EncryptedConfigValueBundle implements Bundle {
     private final SystemProxy systemProxy;
+    private MetricsDecryptionListener metricsListener;
 
     public EncryptedConfigValueBundle() {
         systemProxy = new SystemProxy();
@@ -45,14 +47,29 @@ public final class EncryptedConfigValueBundle implements Bundle {
 
     @Override
     public void initialize(Bootstrap<?> bootstrap) {
+        metricsListener = new MetricsDecryptionListener(bootstrap.getMetricRegistry());
+        DecryptionListeners.register(metricsListener);
         bootstrap.addCommand(new GenerateKeyCommand());
         bootstrap.addCommand(new EncryptConfigValueCommand(systemProxy));
         bootstrap.addCommand(new EncryptConfigValueCommand("encrypt"));
+        bootstrap.addCommand(new ProfileConfigDecryptionCommand(systemProxy));
         setConfigurationFactoryFactory(bootstrap,
-                                       new JsonNodeStringReplacer(new DecryptingVariableSubstitutor(systemProxy)));
+                                       JsonNodeStringReplacer.inPlace(new DecryptingVariableSubstitutor(systemProxy)));
     }
 
     @Override
-    public void run(Environment environment) {}
+    public void run(Environment environment) {
+        // the listener is registered globally, so it must not outlive the application whose registry it records into
+        MetricsDecryptionListener listener = metricsListener;
+        environment.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {}
+
+            @Override
+            public void stop() {
+                DecryptionListeners.unregister(listener);
+            }
+        });
+    }
 
 }
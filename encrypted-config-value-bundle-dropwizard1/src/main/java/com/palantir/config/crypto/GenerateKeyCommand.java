@@ -21,6 +21,7 @@ import io.dropwizard.cli.Command;
 import io.dropwizard.setup.Bootstrap;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import net.sourceforge.argparse4j.inf.Namespace;
 import net.sourceforge.argparse4j.inf.Subparser;
 
@@ -39,7 +40,7 @@ public final class GenerateKeyCommand extends Command {
             .required(true)
             .type(String.class)
             .dest(ALGORITHM)
-            .help("The algorithm to use (see https://docs.oracle.com/javase/7/docs/technotes/guides/security/StandardNames.html#KeyGenerator for a list of valid algorithms)");
+            .help("The algorithm to use. Supported values: " + Arrays.toString(Algorithm.values()));
 
         subparser.addArgument("-f", "--file")
             .required(false)
@@ -55,7 +56,7 @@ public final class GenerateKeyCommand extends Command {
         String file = namespace.getString(FILE);
         Path path = Paths.get(file);
 
-        Algorithm algorithm = Algorithm.valueOf(algorithmType);
+        Algorithm algorithm = Algorithm.from(algorithmType);
         KeyPair keyPair = algorithm.newKeyPair();
         KeyPairFiles keyPairFiles = KeyFileUtils.keyPairToFile(keyPair, path);
 
@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records key loads, value parses and decryptions in a {@link MetricRegistry}, under names starting with
+ * "encrypted-config-value.":
+ *
+ * <ul>
+ * <li>keys.{key type}.load: a timer of key loads</li>
+ * <li>values.{algorithm}.parse: a timer of value parses, where legacy values have the algorithm "legacy"</li>
+ * <li>values.{algorithm}.{key type}.decrypt: a timer of decryptions</li>
+ * <li>keys.load.failures, values.parse.failures and values.{algorithm}.{key type}.decrypt.failures: counters of
+ * failures</li>
+ * <li>cache.{key type}.hits and cache.{key type}.misses: meters of {@link DecryptedValueCache} lookups</li>
+ * </ul>
+ *
+ * {@link EncryptedConfigValueBundle} registers a listener for the application's registry, and unregisters it when the
+ * application stops.
+ */
+public final class MetricsDecryptionListener implements DecryptionListener {
+    private static final String PREFIX = "encrypted-config-value";
+
+    private final MetricRegistry registry;
+
+    public MetricsDecryptionListener(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void keyLoaded(KeyType keyType, long nanos) {
+        registry.timer(MetricRegistry.name(PREFIX, "keys", keyType.toString(), "load"))
+                .update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void keyLoadFailed(RuntimeException exception) {
+        registry.counter(MetricRegistry.name(PREFIX, "keys", "load", "failures")).inc();
+    }
+
+    @Override
+    public void valueParsed(Optional<Algorithm> algorithm, long nanos) {
+        String algorithmName = algorithm.map(Algorithm::toString).orElse("legacy");
+        registry.timer(MetricRegistry.name(PREFIX, "values", algorithmName, "parse"))
+                .update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void valueParseFailed(RuntimeException exception) {
+        registry.counter(MetricRegistry.name(PREFIX, "values", "parse", "failures")).inc();
+    }
+
+    @Override
+    public void valueDecrypted(Algorithm algorithm, KeyType keyType, long nanos) {
+        registry.timer(MetricRegistry.name(PREFIX, "values", algorithm.toString(), keyType.toString(), "decrypt"))
+                .update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void valueDecryptionFailed(Algorithm algorithm, KeyType keyType, RuntimeException exception) {
+        registry.counter(MetricRegistry.name(
+                PREFIX, "values", algorithm.toString(), keyType.toString(), "decrypt", "failures")).inc();
+    }
+
+    @Override
+    public void cacheHit(KeyType keyType) {
+        registry.meter(MetricRegistry.name(PREFIX, "cache", keyType.toString(), "hits")).mark();
+    }
+
+    @Override
+    public void cacheMissed(KeyType keyType) {
+        registry.meter(MetricRegistry.name(PREFIX, "cache", keyType.toString(), "misses")).mark();
+    }
+
+    // listeners for the same registry are equal, so that initializing the bundle again does not record twice
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MetricsDecryptionListener && ((MetricsDecryptionListener) other).registry == registry;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(registry);
+    }
+}
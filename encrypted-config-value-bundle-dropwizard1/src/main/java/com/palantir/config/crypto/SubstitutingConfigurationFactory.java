@@ -40,6 +40,8 @@ import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.configuration.ConfigurationFactoryFactory;
 import io.dropwizard.configuration.YamlConfigurationFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.validation.Validator;
 
 /**
@@ -75,14 +77,31 @@ public final class SubstitutingConfigurationFactory<T> extends YamlConfiguration
             JsonNode substitutedNode = JsonNodeVisitors.dispatch(node, substitutor);
             return super.build(substitutedNode, path);
         } catch (StringSubstitutionException e) {
-            String error = String.format(
-                    "The value '%s' for field '%s' could not be replaced",
-                    e.getValue(),
-                    e.getField());
-            throw new ConfigurationDecryptionException(path, ImmutableList.of(error), e);
+            ImmutableList.Builder<String> errors = ImmutableList.builder();
+            for (StringSubstitutionException failure : failures(e)) {
+                errors.add(String.format(
+                        "The value '%s' for field '%s' could not be replaced",
+                        failure.getValue(),
+                        failure.getField()));
+            }
+            throw new ConfigurationDecryptionException(path, errors.build(), e);
         }
     }
 
+    /**
+     * Returns the provided failure followed by the failures of the other values reported with it.
+     */
+    private static List<StringSubstitutionException> failures(StringSubstitutionException exception) {
+        List<StringSubstitutionException> failures = new ArrayList<>();
+        failures.add(exception);
+        for (Throwable suppressed : exception.getSuppressed()) {
+            if (suppressed instanceof StringSubstitutionException) {
+                failures.add((StringSubstitutionException) suppressed);
+            }
+        }
+        return failures;
+    }
+
     /**
      * A {@link ConfigurationFactoryFactory} which returns {@link SubstitutingConfigurationFactory}.
      *
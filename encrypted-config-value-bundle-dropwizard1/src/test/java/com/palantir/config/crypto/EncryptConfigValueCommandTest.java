@@ -17,6 +17,7 @@
 package com.palantir.config.crypto;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -92,6 +93,25 @@ public final class EncryptConfigValueCommandTest {
         assertOutputEqualsDecryptedValue(keyPair);
     }
 
+    @Test
+    public void weEncryptAndPrintAValueInTheBinaryFormat() throws Exception {
+        when(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)).thenReturn("");
+        Path tempFilePath = Files.createTempDirectory("temp-key-directory").resolve("test.key");
+
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        KeyFileUtils.keyPairToFile(keyPair, tempFilePath);
+
+        Namespace namespace = new Namespace(ImmutableMap.of(
+                EncryptConfigValueCommand.KEYFILE, tempFilePath.toString(),
+                EncryptConfigValueCommand.VALUE, plaintext,
+                EncryptConfigValueCommand.FORMAT, EncryptedValue.StringFormat.BINARY));
+
+        command.run(null, namespace);
+
+        assertThat(outContent.toString(CHARSET), startsWith("enc2:"));
+        assertOutputEqualsDecryptedValue(keyPair);
+    }
+
     private void assertOutputEqualsDecryptedValue(KeyPair keyPair) throws UnsupportedEncodingException {
         String output = outContent.toString(CHARSET).trim();
 
@@ -112,6 +132,11 @@ public final class EncryptConfigValueCommandTest {
         weEncryptAndPrintAValue(Algorithm.RSA);
     }
 
+    @Test
+    public void weEncryptAndPrintAValueUsingEc() throws Exception {
+        weEncryptAndPrintAValue(Algorithm.EC);
+    }
+
     @Test(expected = NoSuchFileException.class)
     public void weFailIfTheKeyfileDoesNotExist() throws Exception {
         Path tempFilePath = Files.createTempDirectory("temp-key-directory").resolve("test.key");
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.config.crypto.util.SystemProxy;
+import com.palantir.config.crypto.util.TestConfig;
+import io.dropwizard.setup.Bootstrap;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class ProfileConfigDecryptionCommandTest {
+    private static final String CHARSET = "UTF8";
+
+    static {
+        System.setProperty(KeyFileUtils.KEY_PATH_PROPERTY, "src/test/resources/test.key");
+    }
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final Bootstrap<TestConfig> bootstrap = new Bootstrap<>(new VariableSubstitutionTest.TestApplication());
+    private ProfileConfigDecryptionCommand command;
+
+    private PrintStream originalSystemOut;
+
+    @Before
+    public void setUpStreams() throws UnsupportedEncodingException {
+        SystemProxy systemProxy = mock(SystemProxy.class);
+        when(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)).thenReturn("");
+        command = new ProfileConfigDecryptionCommand(systemProxy);
+        originalSystemOut = System.out;
+        System.setOut(new PrintStream(outContent, false, CHARSET));
+    }
+
+    @After
+    public void cleanUpStreams() {
+        System.setOut(originalSystemOut);
+    }
+
+    @Test
+    public void wePrintTheDecryptionTimesOfEachEncryptedField() throws Exception {
+        Namespace namespace = new Namespace(ImmutableMap.of(
+                ProfileConfigDecryptionCommand.FILE, "src/test/resources/testConfig.yml"));
+
+        command.run(bootstrap, namespace);
+
+        String output = outContent.toString(CHARSET);
+        assertThat(output, containsString("encryptedWithSingleQuote "));
+        assertThat(output, containsString("arrayWithSomeEncryptedValues[3] "));
+        assertThat(output, containsString("pojoWithEncryptedValues.password "));
+        assertThat(output, not(containsString("unencrypted")));
+        assertThat(output, not(containsString("arrayWithSomeEncryptedValues[1]")));
+        assertThat(output, containsString("Encrypted fields: 7"));
+        assertThat(output, containsString("Binding (ms)"));
+    }
+}
@@ -90,4 +90,16 @@ public class SubstitutingConfigurationFactoryTest {
                     "The value 'enc:ERROR' for field 'arrayWithSomeEncryptedValues[3]' could not be replaced");
         }
     }
+
+    @Test
+    public final void decryptionFailuresAreAllReported() throws IOException, ConfigurationException {
+        try {
+            factory.build(new File("src/test/resources/testConfigWithErrors.yml"));
+            failBecauseExceptionWasNotThrown(ConfigurationDecryptionException.class);
+        } catch (ConfigurationDecryptionException e) {
+            assertThat(e.getMessage()).contains(
+                    "The value 'enc:ERROR' for field 'arrayWithSomeEncryptedValues[3]' could not be replaced",
+                    "The value 'enc:ERROR2' for field 'pojoWithEncryptedValues.password' could not be replaced");
+        }
+    }
 }
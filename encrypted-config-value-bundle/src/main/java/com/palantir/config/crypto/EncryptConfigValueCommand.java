@@ -16,6 +16,7 @@
 
 package com.palantir.config.crypto;
 
+import com.google.common.base.MoreObjects;
 import com.palantir.config.crypto.algorithm.Encrypter;
 import io.dropwizard.cli.Command;
 import io.dropwizard.setup.Bootstrap;
@@ -27,6 +28,7 @@ public final class EncryptConfigValueCommand extends Command {
 
     public static final String KEYFILE = "keyfile";
     public static final String VALUE = "value";
+    public static final String FORMAT = "format";
 
     protected EncryptConfigValueCommand() {
         super("encrypt-config-value", "Encrypts a configuration value so it can be stored securely");
@@ -46,17 +48,26 @@ public final class EncryptConfigValueCommand extends Command {
             .type(String.class)
             .dest(VALUE)
             .help("The value to encrypt");
+
+        subparser.addArgument("-f", "--format")
+            .required(false)
+            .type(EncryptedValue.StringFormat.class)
+            .dest(FORMAT)
+            .setDefault(EncryptedValue.StringFormat.JSON)
+            .help("The format of the encrypted value: JSON (\"enc:\") or the more compact BINARY (\"enc2:\")");
     }
 
     @Override
     public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
         String keyfile = namespace.getString(KEYFILE);
         String value = namespace.getString(VALUE);
+        EncryptedValue.StringFormat format =
+                MoreObjects.firstNonNull(namespace.get(FORMAT), EncryptedValue.StringFormat.JSON);
 
         KeyWithType keyWithType = KeyFileUtils.keyWithTypeFromPath(Paths.get(keyfile));
         Encrypter encrypter = keyWithType.getType().getAlgorithm().newEncrypter();
 
-        EncryptedValue encryptedValue = encrypter.encrypt(keyWithType, value);
+        String encryptedValue = encrypter.encryptToString(keyWithType, value, format);
 
         // print the resulting encrypted value to the console
         System.out.println(encryptedValue);
@@ -21,10 +21,12 @@ import com.palantir.config.crypto.jackson.JsonNodeStringReplacer;
 import com.palantir.config.crypto.jackson.JsonNodeVisitor;
 import io.dropwizard.Bundle;
 import io.dropwizard.Configuration;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 
 public final class EncryptedConfigValueBundle implements Bundle {
+    private MetricsDecryptionListener metricsListener;
 
     // Generically capture configuration type T from Bootstrap<T>, though we don't actually care about it
     private static <T extends Configuration> void setConfigurationFactoryFactory(
@@ -35,12 +37,27 @@ public final class EncryptedConfigValueBundle implements Bundle {
 
     @Override
     public void initialize(Bootstrap<?> bootstrap) {
+        metricsListener = new MetricsDecryptionListener(bootstrap.getMetricRegistry());
+        DecryptionListeners.register(metricsListener);
         bootstrap.addCommand(new GenerateKeyCommand());
         bootstrap.addCommand(new EncryptConfigValueCommand());
-        setConfigurationFactoryFactory(bootstrap, new JsonNodeStringReplacer(new DecryptingVariableSubstitutor()));
+        bootstrap.addCommand(new ProfileConfigDecryptionCommand());
+        setConfigurationFactoryFactory(bootstrap, JsonNodeStringReplacer.inPlace(new DecryptingVariableSubstitutor()));
     }
 
     @Override
-    public void run(Environment environment) {}
+    public void run(Environment environment) {
+        // the listener is registered globally, so it must not outlive the application whose registry it records into
+        MetricsDecryptionListener listener = metricsListener;
+        environment.lifecycle().manage(new Managed() {
+            @Override
+            public void start() {}
+
+            @Override
+            public void stop() {
+                DecryptionListeners.unregister(listener);
+            }
+        });
+    }
 
 }
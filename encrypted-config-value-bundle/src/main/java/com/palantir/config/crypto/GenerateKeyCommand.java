@@ -56,7 +56,7 @@ public final class GenerateKeyCommand extends Command {
         String file = namespace.getString(FILE);
         Path path = Paths.get(file);
 
-        Algorithm algorithm = Algorithm.valueOf(algorithmType);
+        Algorithm algorithm = Algorithm.from(algorithmType);
         KeyPair keyPair = algorithm.newKeyPair();
         KeyPairFiles keyPairFiles = KeyFileUtils.keyPairToFile(keyPair, path);
 
@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.palantir.config.crypto.jackson.ConfigDecryptionProfile;
+import com.palantir.config.crypto.jackson.ConfigDecryptionProfiler;
+import com.palantir.config.crypto.jackson.ImmutableConfigDecryptionProfile;
+import io.dropwizard.Configuration;
+import io.dropwizard.cli.Command;
+import io.dropwizard.configuration.ConfigurationException;
+import io.dropwizard.setup.Bootstrap;
+import java.io.IOException;
+import java.time.Duration;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * Loads a configuration file the way the application would, and prints how long parsing and decrypting each encrypted
+ * field took, along with the time taken to walk the config tree, load the keys and bind the configuration.
+ */
+public final class ProfileConfigDecryptionCommand extends Command {
+
+    public static final String FILE = "file";
+    private static final String DESCRIPTION = "Prints how long decrypting each encrypted value of a configuration took";
+
+    private final StrSubstitutor substitutor;
+
+    public ProfileConfigDecryptionCommand() {
+        super("profile-config-decryption", DESCRIPTION);
+        this.substitutor = new DecryptingVariableSubstitutor();
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        subparser.addArgument("file")
+            .type(String.class)
+            .dest(FILE)
+            .help("The configuration file to load");
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        ConfigDecryptionProfile profile = profile(bootstrap, namespace.getString(FILE), substitutor);
+
+        // print the table to the console
+        System.out.print(profile.toTable());
+    }
+
+    // Generically capture configuration type T from Bootstrap<T>
+    private static <T extends Configuration> ConfigDecryptionProfile profile(
+            Bootstrap<T> bootstrap, String file, StrSubstitutor substitutor)
+            throws IOException, ConfigurationException {
+        ConfigDecryptionProfiler profiler = new ConfigDecryptionProfiler(substitutor);
+        SubstitutingConfigurationFactory<T> factory = new SubstitutingConfigurationFactory<>(
+                bootstrap.getApplication().getConfigurationClass(),
+                bootstrap.getValidatorFactory().getValidator(),
+                bootstrap.getObjectMapper(),
+                "dw",
+                profiler);
+
+        long start = System.nanoTime();
+        factory.build(bootstrap.getConfigurationSourceProvider(), file);
+        Duration loadTime = Duration.ofNanos(System.nanoTime() - start);
+
+        ConfigDecryptionProfile profile = profiler.getProfile();
+        // everything but the tree walk: reading, parsing and binding the config, and validating it
+        return ImmutableConfigDecryptionProfile.copyOf(profile)
+                .withBindingTime(loadTime.minus(profile.getTreeWalkTime()));
+    }
+}
@@ -39,6 +39,8 @@ import io.dropwizard.configuration.ConfigurationException;
 import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.configuration.ConfigurationFactoryFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.validation.Validator;
 
 /**
@@ -74,15 +76,32 @@ public final class SubstitutingConfigurationFactory<T> extends ConfigurationFact
             JsonNode substitutedNode = JsonNodeVisitors.dispatch(node, substitutor);
             return super.build(substitutedNode, path);
         } catch (StringSubstitutionException e) {
-            String error = String.format(
-                    "The value '%s' for field '%s' could not be replaced with its unencrypted value",
-                    e.getValue(),
-                    e.getField());
-            String underlyingError = String.format("Underlying error - %s", e.getMessage());
-            throw new ConfigurationDecryptionException(path, ImmutableList.of(error, underlyingError), e);
+            ImmutableList.Builder<String> errors = ImmutableList.builder();
+            for (StringSubstitutionException failure : failures(e)) {
+                errors.add(String.format(
+                        "The value '%s' for field '%s' could not be replaced with its unencrypted value",
+                        failure.getValue(),
+                        failure.getField()));
+                errors.add(String.format("Underlying error - %s", failure.getMessage()));
+            }
+            throw new ConfigurationDecryptionException(path, errors.build(), e);
         }
     }
 
+    /**
+     * Returns the provided failure followed by the failures of the other values reported with it.
+     */
+    private static List<StringSubstitutionException> failures(StringSubstitutionException exception) {
+        List<StringSubstitutionException> failures = new ArrayList<>();
+        failures.add(exception);
+        for (Throwable suppressed : exception.getSuppressed()) {
+            if (suppressed instanceof StringSubstitutionException) {
+                failures.add((StringSubstitutionException) suppressed);
+            }
+        }
+        return failures;
+    }
+
     /**
      * A {@link ConfigurationFactoryFactory} which returns {@link SubstitutingConfigurationFactory}.
      *
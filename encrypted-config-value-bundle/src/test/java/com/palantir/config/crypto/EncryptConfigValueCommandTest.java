@@ -17,6 +17,7 @@
 package com.palantir.config.crypto;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableMap;
@@ -83,6 +84,30 @@ public final class EncryptConfigValueCommandTest {
         weEncryptAndPrintAValue(Algorithm.RSA);
     }
 
+    @Test
+    public void weEncryptAndPrintAValueUsingEc() throws Exception {
+        weEncryptAndPrintAValue(Algorithm.EC);
+    }
+
+    @Test
+    public void weEncryptAndPrintAValueInTheBinaryFormat() throws Exception {
+        Path tempFilePath = Files.createTempDirectory("temp-key-directory").resolve("test.key");
+
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        KeyFileUtils.keyPairToFile(keyPair, tempFilePath);
+
+        Namespace namespace = new Namespace(ImmutableMap.of(
+                EncryptConfigValueCommand.KEYFILE, tempFilePath.toString(),
+                EncryptConfigValueCommand.VALUE, plaintext,
+                EncryptConfigValueCommand.FORMAT, EncryptedValue.StringFormat.BINARY));
+
+        command.run(null, namespace);
+
+        String output = outContent.toString(CHARSET).trim();
+        assertThat(output, startsWith("enc2:"));
+        assertThat(EncryptedValue.fromString(output).decrypt(keyPair.decryptionKey()), is(plaintext));
+    }
+
     @Test(expected = NoSuchFileException.class)
     public void weFailIfTheKeyfileDoesNotExist() throws Exception {
         Path tempFilePath = Files.createTempDirectory("temp-key-directory").resolve("test.key");
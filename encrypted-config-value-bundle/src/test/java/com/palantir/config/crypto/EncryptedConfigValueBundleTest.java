@@ -0,0 +1,61 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public final class EncryptedConfigValueBundleTest {
+    private static final String METRIC_NAME = "encrypted-config-value.values.AES.parse";
+
+    private final String value = Algorithm.AES.newEncrypter()
+            .encrypt(Algorithm.AES.newKeyPair().encryptionKey(), "value")
+            .toString();
+
+    @Test
+    public void stoppedApplicationsNoLongerReceiveMetrics() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        Bootstrap<?> bootstrap = mock(Bootstrap.class);
+        when(bootstrap.getMetricRegistry()).thenReturn(registry);
+        Environment environment = mock(Environment.class);
+        LifecycleEnvironment lifecycle = mock(LifecycleEnvironment.class);
+        when(environment.lifecycle()).thenReturn(lifecycle);
+
+        EncryptedConfigValueBundle bundle = new EncryptedConfigValueBundle();
+        bundle.initialize(bootstrap);
+        bundle.run(environment);
+        EncryptedValue.fromString(value);
+
+        ArgumentCaptor<Managed> managed = ArgumentCaptor.forClass(Managed.class);
+        verify(lifecycle).manage(managed.capture());
+        managed.getValue().stop();
+        EncryptedValue.fromString(value);
+
+        assertThat(registry.timer(METRIC_NAME).getCount()).isEqualTo(1);
+    }
+}
@@ -53,6 +53,16 @@ public final class GenerateKeyCommandTest {
         weGenerateAValidKey(Algorithm.AES);
     }
 
+    @Test
+    public void weGenerateAValidEcKey() throws Exception {
+        weGenerateAValidKey(Algorithm.EC);
+    }
+
+    @Test
+    public void weGenerateAValidChaCha20Key() throws Exception {
+        weGenerateAValidKey(Algorithm.CHACHA20_POLY1305);
+    }
+
     @Test(expected = FileAlreadyExistsException.class)
     public void weDoNotOverwriteAnExistingKeyfile() throws Exception {
         Path tempFilePath = Files.createTempDirectory("temp-key-directory").resolve("test.key");
@@ -93,4 +93,20 @@ public class SubstitutingConfigurationFactoryTest {
                     "Underlying error - ");
         }
     }
+
+    @Test
+    public final void decryptionFailuresAreAllReported() throws IOException, ConfigurationException {
+        try {
+            factory.build(new File("src/test/resources/testConfigWithErrors.yml"));
+            failBecauseExceptionWasNotThrown(ConfigurationDecryptionException.class);
+        } catch (ConfigurationDecryptionException e) {
+            assertThat(e.getMessage()).contains(
+                    "The value 'enc:ERROR' for field 'arrayWithSomeEncryptedValues[3]' could not be replaced "
+                    + "with its unencrypted value",
+                    "The value 'enc:ERROR2' for field 'pojoWithEncryptedValues.password' could not be replaced "
+                    + "with its unencrypted value");
+            // one underlying error follows each failure
+            assertThat(e.getMessage().split("Underlying error - ", -1)).hasSize(3);
+        }
+    }
 }
@@ -19,6 +19,7 @@ package com.palantir.config.crypto;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -57,6 +58,14 @@ public final class VariableSubstitutionTest {
                 .and(hasProperty("password", equalTo("value"))));
     }
 
+    @Test
+    public void decryptionsAreRecordedInTheApplicationMetrics() {
+        assertThat(RULE.getEnvironment().metrics().getTimers(),
+                hasKey("encrypted-config-value.values.legacy.parse"));
+        assertThat(RULE.getEnvironment().metrics().getTimers(),
+                hasKey("encrypted-config-value.values.AES.AES.decrypt"));
+    }
+
     public static final class TestApplication extends Application<TestConfig> {
         @Override
         public void initialize(Bootstrap<TestConfig> bootstrap) {
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decrypting already parsed AES values in the current and the legacy format. Run with {@code -prof gc} to
+ * see the bytes allocated per decryption.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesDecryptBenchmark {
+    private static final KeyWithType LEGACY_KEY = KeyWithType.fromString("AES:rqrvWpLld+wKLOyxJYxQVg==");
+    private static final String LEGACY_VALUE = "enc:QjR4AHIYoIzvjEHf53XETM3QYnCl1mgFYC51Q7x4ebwM+h3PHVqSt/1un/"
+            + "+KvpJ2mZfMH0tifu+htRVxEPyXmt88lyKB83NpesNJEoLFLL+wBWCkppaLRuc/1w==";
+
+    private KeyWithType key;
+    private EncryptedValue value;
+    private EncryptedValue legacyValue;
+
+    @Setup
+    public final void before() {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        key = keyPair.decryptionKey();
+        value = Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(),
+                "my secret. I don't want anyone to know this");
+        legacyValue = EncryptedValue.fromString(LEGACY_VALUE);
+    }
+
+    @Benchmark
+    public final String decrypt() {
+        return value.decrypt(key);
+    }
+
+    @Benchmark
+    public final String decryptLegacy() {
+        return legacyValue.decrypt(LEGACY_KEY);
+    }
+}
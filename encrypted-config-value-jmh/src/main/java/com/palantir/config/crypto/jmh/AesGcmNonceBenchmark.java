@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import com.palantir.config.crypto.algorithm.aes.AesGcmEncrypter;
+import com.palantir.config.crypto.algorithm.aes.NonceSource;
+import com.palantir.config.crypto.algorithm.aes.NonceSources;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of generating AES-GCM IVs, on their own and as part of encrypting a value, for the available
+ * {@link NonceSource}s and the previous approach of creating a {@link SecureRandom} per encryption. Run with
+ * {@code -t <threads>} to measure contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesGcmNonceBenchmark {
+
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    @Param({"newSecureRandom", "perThreadRandom", "prefixedCounter"})
+    public String source;
+
+    private NonceSource nonceSource;
+    private Encrypter encrypter;
+    private KeyWithType key;
+
+    @Setup
+    public final void before() {
+        nonceSource = newNonceSource(source);
+        encrypter = AesGcmEncrypter.withNonceSource(nonceSource);
+        key = Algorithm.AES.newKeyPair().encryptionKey();
+    }
+
+    @Benchmark
+    public final byte[] nextNonce() {
+        byte[] nonce = new byte[12];
+        nonceSource.nextNonce(nonce);
+        return nonce;
+    }
+
+    @Benchmark
+    public final EncryptedValue encrypt() {
+        return encrypter.encrypt(key, "a short secret");
+    }
+
+    private static NonceSource newNonceSource(String name) {
+        switch (name) {
+            case "newSecureRandom":
+                return NewSecureRandomNonceSource.INSTANCE;
+            case "perThreadRandom":
+                return NonceSources.perThreadRandom();
+            case "prefixedCounter":
+                return NonceSources.prefixedCounter();
+            default:
+                throw new IllegalArgumentException("unknown nonce source: " + name);
+        }
+    }
+
+    private enum NewSecureRandomNonceSource implements NonceSource {
+        INSTANCE;
+
+        @Override
+        public void nextNonce(byte[] nonce) {
+            new SecureRandom().nextBytes(nonce);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generating keys, encrypting a value and decrypting a value with the asymmetric algorithms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsymmetricAlgorithmBenchmark {
+    private static final String PLAINTEXT = "my secret. I don't want anyone to know this";
+
+    @Param({"RSA", "EC"})
+    private Algorithm algorithm;
+
+    private KeyPair keyPair;
+    private Encrypter encrypter;
+    private EncryptedValue value;
+
+    @Setup
+    public final void before() {
+        keyPair = algorithm.newKeyPair();
+        encrypter = algorithm.newEncrypter();
+        value = encrypter.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    }
+
+    @Benchmark
+    public final KeyPair newKeyPair() {
+        return algorithm.newKeyPair();
+    }
+
+    @Benchmark
+    public final EncryptedValue encrypt() {
+        return encrypter.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    }
+
+    @Benchmark
+    public final String decrypt() {
+        return value.decrypt(keyPair.decryptionKey());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyPairFiles;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import com.palantir.config.crypto.jackson.EncryptedConfigMapperUtils;
+import com.palantir.config.crypto.util.SystemProxy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a config with {@link EncryptedConfigMapperUtils#getConfig(String, Class, ObjectMapper)}, from
+ * parsing the JSON through decrypting its encrypted values with the key in a key file to binding the result. The config
+ * has 200 plain values and the configured number of encrypted values. The four-thread variant reads configs
+ * concurrently, as services that load several configs at startup do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptedConfigBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PLAIN_VALUES = 200;
+
+    @Param({"AES", "RSA"})
+    private Algorithm algorithm;
+
+    @Param({"1", "20"})
+    private int encryptedValues;
+
+    private KeyPairFiles keyPairFiles;
+    private String config;
+
+    @Setup
+    public final void before() throws IOException {
+        Path keyPath = Files.createTempDirectory("encrypted-config-benchmark").resolve("test.key");
+        KeyPair keyPair = algorithm.newKeyPair();
+        keyPairFiles = KeyFileUtils.keyPairToFile(keyPair, keyPath);
+        System.setProperty(KeyFileUtils.KEY_PATH_PROPERTY, keyPath.toString());
+        // read keys from the key file even if the environment provides keys
+        EncryptedConfigMapperUtils.setSystemProxy(new SystemProxy() {
+            @Override
+            public String getenv(String key) {
+                return null;
+            }
+        });
+
+        Encrypter encrypter = algorithm.newEncrypter();
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        ArrayNode servers = root.putArray("servers");
+        for (int i = 0; i < PLAIN_VALUES; i++) {
+            servers.addObject().put("uri", "https://host-" + i + ".example.com:8443/api");
+        }
+        ObjectNode passwords = root.putObject("passwords");
+        for (int i = 0; i < encryptedValues; i++) {
+            passwords.put("user-" + i, "${" + encrypter.encrypt(keyPair.encryptionKey(), "password-" + i) + "}");
+        }
+        config = MAPPER.writeValueAsString(root);
+    }
+
+    @TearDown
+    public final void after() throws IOException {
+        System.clearProperty(KeyFileUtils.KEY_PATH_PROPERTY);
+        Files.delete(keyPairFiles.encryptionKeyFile());
+        Files.deleteIfExists(keyPairFiles.decryptionKeyFile());
+    }
+
+    @Benchmark
+    public final Map<?, ?> getConfig() throws IOException {
+        return EncryptedConfigMapperUtils.getConfig(config, Map.class, MAPPER);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public final Map<?, ?> getConfigOnFourThreads() throws IOException {
+        return EncryptedConfigMapperUtils.getConfig(config, Map.class, MAPPER);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.EncryptedValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the first parse and write of an encrypted value in a fresh JVM, which includes loading and initializing the
+ * classes involved. Run with {@code -prof cl} to see the number of classes loaded.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class EncryptedValueFirstUseBenchmark {
+    private static final String AES_VALUE = "enc:eyJ0eXBlIjoiQUVTIiwibW9kZSI6IkdDTSIsIml2IjoiazhKTEJpVVhHWmYyQk1aUSIs"
+            + "ImNpcGhlcnRleHQiOiI1U1R3Z0hTaHB0Q1ErNCtmT0lMRC8xRHM5R3ppK1RXSkZwckpHWGdUVXVRRmx4Nnd0a0lwNVFUcE1RPT0i"
+            + "LCJ0YWciOiJZTUNURlY2b2dsemxwV3FOVlp3YVp3PT0ifQ==";
+
+    @Benchmark
+    public final String parseAndSerializeAes() {
+        return EncryptedValue.fromString(AES_VALUE).toString();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the string form of encrypted values in the legacy, the current and the binary format, without
+ * decrypting them, and writing the string form of values in the current and the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptedValueParseBenchmark {
+    private static final String LEGACY_VALUE = "enc:QjR4AHIYoIzvjEHf53XETM3QYnCl1mgFYC51Q7x4ebwM+h3PHVqSt/1un/"
+            + "+KvpJ2mZfMH0tifu+htRVxEPyXmt88lyKB83NpesNJEoLFLL+wBWCkppaLRuc/1w==";
+
+    private String aesValue;
+    private String rsaValue;
+    private String binaryAesValue;
+    private String binaryRsaValue;
+    private EncryptedValue parsedAesValue;
+    private EncryptedValue parsedRsaValue;
+
+    @Setup
+    public final void before() {
+        parsedAesValue = encrypt(Algorithm.AES);
+        parsedRsaValue = encrypt(Algorithm.RSA);
+        aesValue = parsedAesValue.toString();
+        rsaValue = parsedRsaValue.toString();
+        binaryAesValue = parsedAesValue.toString(EncryptedValue.StringFormat.BINARY);
+        binaryRsaValue = parsedRsaValue.toString(EncryptedValue.StringFormat.BINARY);
+    }
+
+    @Benchmark
+    public final EncryptedValue parseLegacy() {
+        return EncryptedValue.fromString(LEGACY_VALUE);
+    }
+
+    @Benchmark
+    public final EncryptedValue parseAes() {
+        return EncryptedValue.fromString(aesValue);
+    }
+
+    @Benchmark
+    public final EncryptedValue parseRsa() {
+        return EncryptedValue.fromString(rsaValue);
+    }
+
+    @Benchmark
+    public final EncryptedValue parseBinaryAes() {
+        return EncryptedValue.fromString(binaryAesValue);
+    }
+
+    @Benchmark
+    public final EncryptedValue parseBinaryRsa() {
+        return EncryptedValue.fromString(binaryRsaValue);
+    }
+
+    @Benchmark
+    public final String serializeAes() {
+        return parsedAesValue.toString();
+    }
+
+    @Benchmark
+    public final String serializeRsa() {
+        return parsedRsaValue.toString();
+    }
+
+    @Benchmark
+    public final String serializeBinaryAes() {
+        return parsedAesValue.toString(EncryptedValue.StringFormat.BINARY);
+    }
+
+    @Benchmark
+    public final String serializeBinaryRsa() {
+        return parsedRsaValue.toString(EncryptedValue.StringFormat.BINARY);
+    }
+
+    private static EncryptedValue encrypt(Algorithm algorithm) {
+        KeyPair keyPair = algorithm.newKeyPair();
+        return algorithm.newEncrypter().encrypt(keyPair.encryptionKey(), "my secret. I don't want anyone to know this");
+    }
+}
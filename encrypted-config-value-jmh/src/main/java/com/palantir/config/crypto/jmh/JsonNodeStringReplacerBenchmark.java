@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.palantir.config.crypto.jackson.JsonNodeStringReplacer;
+import com.palantir.config.crypto.jackson.JsonNodeVisitors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.text.StrLookup;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures substituting config trees of different sizes in which every value, one in a hundred values or one in a
+ * thousand values contains a variable. The lookup is trivial, so the benchmark measures the cost of visiting the tree
+ * rather than the cost of decryption.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonNodeStringReplacerBenchmark {
+    @Param({"200", "20000"})
+    private int values;
+
+    @Param({"1", "100", "1000"})
+    private int valuesPerVariable;
+
+    private JsonNode tree;
+    private JsonNodeStringReplacer replacer;
+    private JsonNodeStringReplacer sharingReplacer;
+
+    @Setup
+    public final void before() {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        ArrayNode servers = root.putArray("servers");
+        for (int i = 0; i < values; i++) {
+            ObjectNode server = servers.addObject();
+            server.put("uri", "https://host-" + i + ".example.com:8443/api");
+            if (i % valuesPerVariable == 0) {
+                server.put("password", "${secret-" + i + "}");
+            }
+        }
+        tree = root;
+        StrSubstitutor substitutor = new StrSubstitutor(new StrLookup<String>() {
+            @Override
+            public String lookup(String key) {
+                return key;
+            }
+        });
+        replacer = new JsonNodeStringReplacer(substitutor);
+        sharingReplacer = JsonNodeStringReplacer.sharingUnchanged(substitutor);
+    }
+
+    @Benchmark
+    public final JsonNode replace() {
+        return JsonNodeVisitors.dispatch(tree, replacer);
+    }
+
+    @Benchmark
+    public final JsonNode replaceSharingUnchanged() {
+        return JsonNodeVisitors.dispatch(tree, sharingReplacer);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jmh;
+
+import com.palantir.config.crypto.DecryptionResult;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decrypting a config's worth of RSA values that were encrypted together, using RSA-OAEP for every value and
+ * using RSA envelope encryption. Every invocation parses the private key again, so the envelope measurements include
+ * unwrapping the shared data key once rather than finding it in the cache of a previously used key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RsaEnvelopeDecryptBenchmark {
+    @Param({"1", "50"})
+    private int values;
+
+    @Param({"RSA", "RSA_ENVELOPE"})
+    private Algorithm algorithm;
+
+    private String decryptionKey;
+    private List<EncryptedValue> encryptedValues;
+
+    @Setup
+    public final void before() {
+        KeyPair keyPair = algorithm.newKeyPair();
+        decryptionKey = keyPair.decryptionKey().toString();
+        List<String> plaintexts = IntStream.range(0, values)
+                .mapToObj(i -> "my secret number " + i + ". I don't want anyone to know this")
+                .collect(Collectors.toList());
+        encryptedValues = algorithm.newEncrypter().encryptAll(keyPair.encryptionKey(), plaintexts);
+    }
+
+    @Benchmark
+    public final List<DecryptionResult> decryptAll() {
+        return EncryptedValue.decryptAll(KeyWithType.fromString(decryptionKey), encryptedValues);
+    }
+}
@@ -17,25 +17,43 @@
 package com.palantir.config.crypto;
 
 import com.google.common.base.Strings;
+import com.google.common.base.Suppliers;
 import com.palantir.config.crypto.util.StringSubstitutionException;
 import com.palantir.config.crypto.util.SystemProxy;
+import java.util.Optional;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
 
 public final class DecryptingVariableSubstitutor extends StrSubstitutor {
     public DecryptingVariableSubstitutor() {
-        super(new DecryptingStringLookup(new SystemProxy()));
+        super(new DecryptingStringLookup(new SystemProxy(), Optional.empty()));
     }
 
     public DecryptingVariableSubstitutor(SystemProxy systemProxy) {
-        super(new DecryptingStringLookup(systemProxy));
+        super(new DecryptingStringLookup(systemProxy, Optional.empty()));
+    }
+
+    /**
+     * Creates a substitutor that looks up decrypted values in the provided cache before decrypting them.
+     */
+    public DecryptingVariableSubstitutor(DecryptedValueCache cache) {
+        super(new DecryptingStringLookup(new SystemProxy(), Optional.of(cache)));
+    }
+
+    public DecryptingVariableSubstitutor(SystemProxy systemProxy, DecryptedValueCache cache) {
+        super(new DecryptingStringLookup(systemProxy, Optional.of(cache)));
     }
 
     private static final class DecryptingStringLookup extends StrLookup<String> {
-        private final SystemProxy systemProxy;
+        // whether keys come from the environment or from key files is decided once, on the first lookup
+        private final Supplier<Boolean> useEnvironmentKeys;
+        private final Optional<DecryptedValueCache> cache;
 
-        DecryptingStringLookup(SystemProxy systemProxy) {
-            this.systemProxy = systemProxy;
+        DecryptingStringLookup(SystemProxy systemProxy, Optional<DecryptedValueCache> cache) {
+            this.useEnvironmentKeys = Suppliers.memoize(
+                    () -> !Strings.isNullOrEmpty(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)));
+            this.cache = cache;
         }
 
         @Override
@@ -45,14 +63,24 @@ public final class DecryptingVariableSubstitutor extends StrSubstitutor {
             }
 
             try {
-                if (Strings.isNullOrEmpty(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME))) {
-                    return KeyFileUtils.decryptUsingDefaultKeys(EncryptedValue.fromString(encryptedValue));
-                } else {
+                if (cache.isPresent()) {
+                    return cache.get().decrypt(encryptedValue, decryptionKey());
+                } else if (useEnvironmentKeys.get()) {
                     return KeyEnvVarUtils.decryptUsingEnvironmentKeys(EncryptedValue.fromString(encryptedValue));
+                } else {
+                    return KeyFileUtils.decryptUsingDefaultKeys(EncryptedValue.fromString(encryptedValue));
                 }
             } catch (RuntimeException e) {
                 throw new StringSubstitutionException(e, encryptedValue);
             }
         }
+
+        private KeyWithType decryptionKey() {
+            if (useEnvironmentKeys.get()) {
+                return KeyEnvVarUtils.retrieveKeyPairFromEnvVar().decryptionKey();
+            } else {
+                return KeyFileUtils.cachedKeyPairFromDefaultPath().decryptionKey();
+            }
+        }
     }
 }
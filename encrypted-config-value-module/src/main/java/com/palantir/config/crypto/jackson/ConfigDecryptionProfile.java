@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.immutables.value.Value;
+
+/**
+ * How long loading a config took, broken down by encrypted field, as measured by a {@link ConfigDecryptionProfiler}.
+ */
+@Value.Immutable
+public abstract class ConfigDecryptionProfile {
+    private static final String FIELD_HEADER = "FIELD";
+    private static final String ALGORITHM_HEADER = "ALGORITHM";
+
+    /**
+     * The fields with encrypted values, in the order they were visited.
+     */
+    public abstract List<FieldDecryptionProfile> getFields();
+
+    /**
+     * The time taken to walk the whole config tree, which includes parsing and decrypting the encrypted values and
+     * loading the keys.
+     */
+    public abstract Duration getTreeWalkTime();
+
+    /**
+     * The time taken to load decryption keys during the walk. Keys that were already cached are not loaded again.
+     */
+    public abstract Duration getKeyLoadTime();
+
+    /**
+     * The time taken to bind the substituted tree to the configuration class, if it was measured. Callers that measure
+     * it usually include reading the config and validating it as well.
+     */
+    public abstract Optional<Duration> getBindingTime();
+
+    /**
+     * Returns a table of the encrypted fields, slowest first, followed by the totals. Times are in milliseconds.
+     */
+    public final String toTable() {
+        List<FieldDecryptionProfile> fields = getFields().stream()
+                .sorted(Comparator.comparing(FieldDecryptionProfile::getTotalTime).reversed())
+                .collect(Collectors.toList());
+        int pathWidth = Math.max(FIELD_HEADER.length(),
+                fields.stream().mapToInt(field -> field.getPath().length()).max().orElse(0));
+        String rowFormat = "%-" + pathWidth + "s  %-17s  %10s  %12s  %s%n";
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, rowFormat,
+                FIELD_HEADER, ALGORITHM_HEADER, "PARSE (ms)", "DECRYPT (ms)", "CACHE"));
+        for (FieldDecryptionProfile field : fields) {
+            table.append(String.format(Locale.ROOT, rowFormat,
+                    field.getPath(),
+                    field.getAlgorithm().map(Object::toString).orElse("-"),
+                    millis(field.getParseTime()),
+                    millis(field.getDecryptionTime()),
+                    field.getCacheStatus()));
+        }
+        table.append(String.format(Locale.ROOT, "%nEncrypted fields: %d%n", fields.size()));
+        table.append(String.format(Locale.ROOT, "Tree walk (ms):   %s%n", millis(getTreeWalkTime())));
+        table.append(String.format(Locale.ROOT, "Key load (ms):    %s%n", millis(getKeyLoadTime())));
+        getBindingTime().ifPresent(bindingTime ->
+                table.append(String.format(Locale.ROOT, "Binding (ms):     %s%n", millis(bindingTime))));
+        return table.toString();
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1e6);
+    }
+}
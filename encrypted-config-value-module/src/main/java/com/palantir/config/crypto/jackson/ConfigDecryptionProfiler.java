@@ -0,0 +1,232 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.palantir.config.crypto.DecryptionListener;
+import com.palantir.config.crypto.DecryptionListeners;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * A {@link JsonNodeVisitor} that substitutes a config tree like {@link JsonNodeStringReplacer#sharingUnchanged}, and
+ * measures how long parsing and decrypting the encrypted value of each field took, using a {@link DecryptionListener}
+ * that is registered for the duration of the traversal. The measurements of the most recent traversal are returned by
+ * {@link #getProfile()}.
+ *
+ * This is meant for finding the values that slow down loading a config, not for use on every load: only measurements
+ * taken on the traversing thread are recorded, and a {@link ParallelJsonNodeStringReplacer} cannot be profiled.
+ */
+public final class ConfigDecryptionProfiler implements JsonNodeVisitor<JsonNode> {
+    private final StrSubstitutor substitutor;
+    private volatile ConfigDecryptionProfile profile;
+
+    public ConfigDecryptionProfiler(StrSubstitutor substitutor) {
+        this.substitutor = substitutor;
+    }
+
+    /**
+     * Returns the profile of the most recent traversal. A traversal continues past values that cannot be substituted,
+     * so the profile of a failed traversal covers every field, including those whose decryption failed.
+     *
+     * @throws IllegalStateException if no tree has been visited yet
+     */
+    public ConfigDecryptionProfile getProfile() {
+        ConfigDecryptionProfile result = profile;
+        checkState(result != null, "no config has been profiled yet");
+        return result;
+    }
+
+    @Override
+    public JsonNode visitArray(ArrayNode arrayNode) {
+        return profile(replacer -> replacer.visitArray(arrayNode));
+    }
+
+    @Override
+    public JsonNode visitBinary(BinaryNode binaryNode) {
+        return profile(replacer -> replacer.visitBinary(binaryNode));
+    }
+
+    @Override
+    public JsonNode visitBoolean(BooleanNode booleanNode) {
+        return profile(replacer -> replacer.visitBoolean(booleanNode));
+    }
+
+    @Override
+    public JsonNode visitNull() {
+        return profile(JsonNodeStringReplacer::visitNull);
+    }
+
+    @Override
+    public JsonNode visitMissing() {
+        return profile(JsonNodeStringReplacer::visitMissing);
+    }
+
+    @Override
+    public JsonNode visitNumeric(NumericNode numericNode) {
+        return profile(replacer -> replacer.visitNumeric(numericNode));
+    }
+
+    @Override
+    public JsonNode visitObject(ObjectNode objectNode) {
+        return profile(replacer -> replacer.visitObject(objectNode));
+    }
+
+    @Override
+    public JsonNode visitPojo(POJONode pojoNode) {
+        return profile(replacer -> replacer.visitPojo(pojoNode));
+    }
+
+    @Override
+    public JsonNode visitText(TextNode textNode) {
+        return profile(replacer -> replacer.visitText(textNode));
+    }
+
+    private JsonNode profile(Function<JsonNodeStringReplacer, JsonNode> traversal) {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        JsonNodeStringReplacer replacer = JsonNodeStringReplacer.withFieldPaths(substitutor, recorder::substitute);
+        DecryptionListeners.register(recorder);
+        long start = System.nanoTime();
+        try {
+            return JfrEvents.configSubstitution(() -> traversal.apply(replacer));
+        } finally {
+            Duration treeWalkTime = Duration.ofNanos(System.nanoTime() - start);
+            DecryptionListeners.unregister(recorder);
+            profile = recorder.toProfile(treeWalkTime);
+        }
+    }
+
+    /**
+     * Attributes the measurements taken while substituting a field to that field.
+     */
+    private static final class Recorder implements DecryptionListener {
+        private final Thread thread;
+        private final List<FieldDecryptionProfile> fields = new ArrayList<>();
+        // the field being substituted, or null between fields
+        private ImmutableFieldDecryptionProfile.Builder field;
+        private boolean fieldDecrypted;
+        private long fieldParseNanos;
+        private long fieldDecryptionNanos;
+        private FieldDecryptionProfile.CacheStatus fieldCacheStatus;
+        private long keyLoadNanos;
+
+        Recorder(Thread thread) {
+            this.thread = thread;
+        }
+
+        String substitute(String path, String value, UnaryOperator<String> valueSubstitutor) {
+            field = ImmutableFieldDecryptionProfile.builder().path(path);
+            fieldDecrypted = false;
+            fieldParseNanos = 0;
+            fieldDecryptionNanos = 0;
+            fieldCacheStatus = FieldDecryptionProfile.CacheStatus.NOT_CACHED;
+            try {
+                return JfrEvents.valueSubstitution(path, value, valueSubstitutor);
+            } finally {
+                if (fieldDecrypted) {
+                    fields.add(field
+                            .parseTime(Duration.ofNanos(fieldParseNanos))
+                            .decryptionTime(Duration.ofNanos(fieldDecryptionNanos))
+                            .cacheStatus(fieldCacheStatus)
+                            .build());
+                }
+                field = null;
+            }
+        }
+
+        ConfigDecryptionProfile toProfile(Duration treeWalkTime) {
+            return ImmutableConfigDecryptionProfile.builder()
+                    .fields(fields)
+                    .treeWalkTime(treeWalkTime)
+                    .keyLoadTime(Duration.ofNanos(keyLoadNanos))
+                    .build();
+        }
+
+        @Override
+        public void keyLoaded(KeyType keyType, long nanos) {
+            if (isRecording()) {
+                keyLoadNanos += nanos;
+            }
+        }
+
+        @Override
+        public void valueParsed(Optional<Algorithm> algorithm, long nanos) {
+            if (isRecordingField()) {
+                fieldParseNanos += nanos;
+            }
+        }
+
+        @Override
+        public void valueDecrypted(Algorithm algorithm, KeyType keyType, long nanos) {
+            if (isRecordingField()) {
+                field.algorithm(algorithm);
+                fieldDecrypted = true;
+                fieldDecryptionNanos += nanos;
+            }
+        }
+
+        @Override
+        public void valueDecryptionFailed(Algorithm algorithm, KeyType keyType, RuntimeException exception) {
+            if (isRecordingField()) {
+                field.algorithm(algorithm);
+                fieldDecrypted = true;
+            }
+        }
+
+        @Override
+        public void cacheHit(KeyType keyType) {
+            if (isRecordingField()) {
+                fieldDecrypted = true;
+                if (fieldCacheStatus != FieldDecryptionProfile.CacheStatus.MISS) {
+                    fieldCacheStatus = FieldDecryptionProfile.CacheStatus.HIT;
+                }
+            }
+        }
+
+        @Override
+        public void cacheMissed(KeyType keyType) {
+            if (isRecordingField()) {
+                fieldCacheStatus = FieldDecryptionProfile.CacheStatus.MISS;
+            }
+        }
+
+        private boolean isRecording() {
+            return Thread.currentThread() == thread;
+        }
+
+        private boolean isRecordingField() {
+            return isRecording() && field != null;
+        }
+    }
+}
@@ -29,12 +29,12 @@ import java.io.IOException;
 public final class EncryptedConfigMapperUtils {
     private static SystemProxy systemProxy = new SystemProxy();
     private static JsonNodeStringReplacer jsonNodeStringReplacer =
-            new JsonNodeStringReplacer(new DecryptingVariableSubstitutor(systemProxy));
+            JsonNodeStringReplacer.inPlace(new DecryptingVariableSubstitutor(systemProxy));
 
     public static void setSystemProxy(SystemProxy systemProxy) {
         EncryptedConfigMapperUtils.systemProxy = systemProxy;
         jsonNodeStringReplacer =
-                new JsonNodeStringReplacer(new DecryptingVariableSubstitutor(systemProxy));
+                JsonNodeStringReplacer.inPlace(new DecryptingVariableSubstitutor(systemProxy));
     }
 
     private EncryptedConfigMapperUtils() {}
@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.PrimitiveArrayDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.palantir.config.crypto.DecryptingVariableSubstitutor;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import java.io.IOException;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * A Jackson {@link com.fasterxml.jackson.databind.Module} that substitutes the variables in string values as they are
+ * deserialized, so that a config can be read with {@code mapper.readValue(file, clazz)} without first reading it into
+ * a tree and copying the tree through a {@link JsonNodeStringReplacer}. Values bound to {@code String} or
+ * {@code char[]}, including the elements of collections, arrays and maps and untyped values, are substituted; values
+ * bound to {@link com.fasterxml.jackson.databind.JsonNode} and field names are not.
+ *
+ * If a substitution fails, a {@link SubstitutionMappingException} is thrown, which reports the field path and value
+ * that a {@link StringSubstitutionException} thrown by a {@link JsonNodeStringReplacer} would, and has that exception
+ * as its cause.
+ */
+public final class EncryptedConfigModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a module that decrypts "${enc:...}" values with the keys in the environment or the default key files.
+     */
+    public EncryptedConfigModule() {
+        this(new DecryptingVariableSubstitutor());
+    }
+
+    public EncryptedConfigModule(StrSubstitutor substitutor) {
+        super(EncryptedConfigModule.class.getSimpleName());
+        addDeserializer(String.class, new SubstitutingStringDeserializer(substitutor));
+        addDeserializer(char[].class, new SubstitutingCharArrayDeserializer(substitutor));
+    }
+
+    private static String substitute(StrSubstitutor substitutor, JsonParser parser, String value)
+            throws SubstitutionMappingException {
+        if (!VariablePrefilter.mayContainVariable(substitutor, value)) {
+            return value;
+        }
+        try {
+            return substitutor.replace(value);
+        } catch (StringSubstitutionException e) {
+            throw new SubstitutionMappingException(e, parser.getTokenLocation());
+        }
+    }
+
+    private static final class SubstitutingStringDeserializer extends StdScalarDeserializer<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final StrSubstitutor substitutor;
+
+        SubstitutingStringDeserializer(StrSubstitutor substitutor) {
+            super(String.class);
+            this.substitutor = substitutor;
+        }
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String value = StringDeserializer.instance.deserialize(parser, context);
+            return value == null ? null : substitute(substitutor, parser, value);
+        }
+
+        @Override
+        public boolean isCachable() {
+            return true;
+        }
+    }
+
+    private static final class SubstitutingCharArrayDeserializer extends StdDeserializer<char[]> {
+        private static final long serialVersionUID = 1L;
+
+        @SuppressWarnings("unchecked")
+        private static final JsonDeserializer<char[]> DEFAULT_DESERIALIZER =
+                (JsonDeserializer<char[]>) PrimitiveArrayDeserializers.forType(Character.TYPE);
+
+        private final StrSubstitutor substitutor;
+
+        SubstitutingCharArrayDeserializer(StrSubstitutor substitutor) {
+            super(char[].class);
+            this.substitutor = substitutor;
+        }
+
+        @Override
+        public char[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                return substitute(substitutor, parser, parser.getText()).toCharArray();
+            }
+            return DEFAULT_DESERIALIZER.deserialize(parser, context);
+        }
+
+        @Override
+        public boolean isCachable() {
+            return true;
+        }
+    }
+}
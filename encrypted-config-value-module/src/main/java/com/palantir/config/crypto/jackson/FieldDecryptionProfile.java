@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.time.Duration;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * How long substituting the encrypted values of a single config field took, as measured by a
+ * {@link ConfigDecryptionProfiler}. A field whose value contains several encrypted variables reports their combined
+ * times.
+ */
+@Value.Immutable
+public abstract class FieldDecryptionProfile {
+    /**
+     * Whether the plaintexts of a field were found in a {@link com.palantir.config.crypto.DecryptedValueCache}.
+     */
+    public enum CacheStatus {
+        /**
+         * Every plaintext was cached, so nothing was parsed or decrypted.
+         */
+        HIT,
+        /**
+         * At least one plaintext was not cached and was decrypted.
+         */
+        MISS,
+        /**
+         * The values were decrypted without a cache.
+         */
+        NOT_CACHED
+    }
+
+    /**
+     * The path of the field, such as "a.b[2].c".
+     */
+    public abstract String getPath();
+
+    /**
+     * The algorithm the value was decrypted with. Empty if the plaintext was cached, since cached values are not
+     * parsed.
+     */
+    public abstract Optional<Algorithm> getAlgorithm();
+
+    public abstract Duration getParseTime();
+
+    public abstract Duration getDecryptionTime();
+
+    public abstract CacheStatus getCacheStatus();
+
+    public final Duration getTotalTime() {
+        return getParseTime().plus(getDecryptionTime());
+    }
+}
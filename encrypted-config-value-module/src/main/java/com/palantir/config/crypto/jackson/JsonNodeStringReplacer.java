@@ -26,32 +26,95 @@ import com.fasterxml.jackson.databind.node.NumericNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.POJONode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import com.palantir.config.crypto.jfr.JfrEvents;
 import com.palantir.config.crypto.util.StringSubstitutionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import org.apache.commons.lang3.text.StrSubstitutor;
 
+/**
+ * A {@link JsonNodeVisitor} that replaces the text values of a tree using a {@link StrSubstitutor}. A replacer created
+ * with the constructor returns a complete copy of the tree. One created with {@link #sharingUnchanged} shares the
+ * subtrees of the original tree that contain no substitutions, and one created with {@link #inPlace} modifies the
+ * original tree.
+ *
+ * Trees are traversed with an explicit stack rather than by recursion, so deeply nested trees do not overflow the
+ * thread's stack. If substitutions fail, the traversal still visits the rest of the tree, and then throws the {@link
+ * StringSubstitutionException} of the first failing value, with those of the other failing values as suppressed
+ * exceptions. Each carries the field path of its value.
+ *
+ * Text values without a variable prefix are returned without calling the substitutor. {@link #getTextNodeCount()}
+ * and {@link #getSkippedTextNodeCount()} report how many text values were visited and skipped.
+ *
+ * While a JDK Flight Recorder recording has the config substitution events enabled, each traversal records an event
+ * for the whole tree and one for each substituted value, carrying the field path of the value.
+ */
 public final class JsonNodeStringReplacer implements JsonNodeVisitor<JsonNode> {
 
-    private final StrSubstitutor substitutor;
+    private final UnaryOperator<String> substitutor;
+    private final Predicate<String> mayContainVariable;
+    private final Mode mode;
+    private final LongAdder textNodeCount;
+    private final LongAdder skippedTextNodeCount;
+    // null unless this replacer is tracking field paths for a single traversal
+    private final FieldSubstitutor fieldSubstitutor;
 
     public JsonNodeStringReplacer(StrSubstitutor substitutor) {
+        this(substitutor, Mode.COPY);
+    }
+
+    JsonNodeStringReplacer(UnaryOperator<String> substitutor) {
+        this(substitutor, value -> true, Mode.COPY);
+    }
+
+    private JsonNodeStringReplacer(StrSubstitutor substitutor, Mode mode) {
+        this(substitutor::replace, value -> VariablePrefilter.mayContainVariable(substitutor, value), mode);
+    }
+
+    private JsonNodeStringReplacer(UnaryOperator<String> substitutor, Predicate<String> mayContainVariable, Mode mode) {
         this.substitutor = substitutor;
+        this.mayContainVariable = mayContainVariable;
+        this.mode = mode;
+        this.textNodeCount = new LongAdder();
+        this.skippedTextNodeCount = new LongAdder();
+        this.fieldSubstitutor = null;
+    }
+
+    private JsonNodeStringReplacer(JsonNodeStringReplacer replacer, FieldSubstitutor fieldSubstitutor) {
+        this.substitutor = replacer.substitutor;
+        this.mayContainVariable = replacer.mayContainVariable;
+        this.mode = replacer.mode;
+        this.textNodeCount = replacer.textNodeCount;
+        this.skippedTextNodeCount = replacer.skippedTextNodeCount;
+        this.fieldSubstitutor = fieldSubstitutor;
+    }
+
+    /**
+     * Returns a replacer that returns the original node for every subtree without substitutions, and copies only the
+     * containers on the path to a substituted value. The original tree is not modified, but it must not be modified
+     * while the returned tree is in use, since the two share nodes.
+     */
+    public static JsonNodeStringReplacer sharingUnchanged(StrSubstitutor substitutor) {
+        return new JsonNodeStringReplacer(substitutor, Mode.SHARE);
+    }
+
+    /**
+     * Returns a replacer that replaces substituted values in the original tree and returns the original tree. Use it
+     * only for trees owned by the caller. If a substitution fails, the values that could be substituted are still
+     * replaced, and the failing values are left unchanged.
+     */
+    public static JsonNodeStringReplacer inPlace(StrSubstitutor substitutor) {
+        return new JsonNodeStringReplacer(substitutor, Mode.IN_PLACE);
     }
 
     @Override
     public JsonNode visitArray(ArrayNode arrayNode) {
-        ArrayNode newArrayNode = arrayNode.arrayNode();
-        int index = 0;
-        for (JsonNode node : arrayNode) {
-            try {
-                newArrayNode.add(JsonNodeVisitors.dispatch(node, this));
-            } catch (StringSubstitutionException e) {
-                throw e.extend(index);
-            }
-            index++;
-        }
-        return newArrayNode;
+        return traverse(arrayNode);
     }
 
     @Override
@@ -81,29 +144,307 @@ public final class JsonNodeStringReplacer implements JsonNodeVisitor<JsonNode> {
 
     @Override
     public JsonNode visitObject(ObjectNode objectNode) {
-        ObjectNode newObjectNode = objectNode.objectNode();
+        return traverse(objectNode);
+    }
+
+    @Override
+    public JsonNode visitPojo(POJONode pojoNode) {
+        // Anything to do here?
+        return pojoNode;
+    }
+
+    @Override
+    public JsonNode visitText(TextNode textNode) {
+        return replace(textNode, null);
+    }
+
+    /**
+     * Returns the number of text nodes visited by this replacer.
+     */
+    public long getTextNodeCount() {
+        return textNodeCount.sum();
+    }
+
+    /**
+     * Returns the number of visited text nodes that contained no variable prefix, and were therefore returned without
+     * calling the substitutor.
+     */
+    public long getSkippedTextNodeCount() {
+        return skippedTextNodeCount.sum();
+    }
+
+    private JsonNode traverse(JsonNode container) {
+        if (fieldSubstitutor == null && JfrEvents.isSubstitutionEnabled()) {
+            JsonNodeStringReplacer tracking = tracking();
+            return JfrEvents.configSubstitution(() -> tracking.traverse(container));
+        }
+        return new Traversal().run(container);
+    }
+
+    private JsonNode replace(TextNode textNode, Traversal traversal) {
+        String value = textNode.textValue();
+        textNodeCount.increment();
+        if (!mayContainVariable.test(value)) {
+            skippedTextNodeCount.increment();
+            return textNode;
+        }
+        String newValue = fieldSubstitutor == null
+                ? substitutor.apply(value)
+                : fieldSubstitutor.substitute(traversal == null ? "" : traversal.path(), value, substitutor);
+        // text nodes are immutable, so an unchanged one can be returned in every mode
+        return newValue.equals(value) ? textNode : TextNode.valueOf(newValue);
+    }
+
+    /**
+     * Returns a replacer for a single traversal that shares the configuration and counts of this one, and tracks the
+     * field paths of the values it substitutes.
+     */
+    private JsonNodeStringReplacer tracking() {
+        return new JsonNodeStringReplacer(this, JfrEvents::valueSubstitution);
+    }
+
+    /**
+     * Returns a replacer for a single traversal that shares unchanged subtrees like one created with {@link
+     * #sharingUnchanged}, and performs each substitution with the provided field substitutor.
+     */
+    static JsonNodeStringReplacer withFieldPaths(StrSubstitutor substitutor, FieldSubstitutor fieldSubstitutor) {
+        return new JsonNodeStringReplacer(sharingUnchanged(substitutor), fieldSubstitutor);
+    }
+
+    private static ArrayNode copyOfFirstElements(ArrayNode arrayNode, int count) {
+        ArrayNode copy = arrayNode.arrayNode();
+        for (int index = 0; index < count; index++) {
+            copy.add(arrayNode.get(index));
+        }
+        return copy;
+    }
+
+    private static ObjectNode copyOfFieldsBefore(ObjectNode objectNode, String field) {
+        ObjectNode copy = objectNode.objectNode();
         Iterator<Map.Entry<String, JsonNode>> entryIterator = objectNode.fields();
         while (entryIterator.hasNext()) {
             Map.Entry<String, JsonNode> entry = entryIterator.next();
-            String field = entry.getKey();
-            JsonNode node = entry.getValue();
+            if (entry.getKey().equals(field)) {
+                break;
+            }
+            copy.set(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    /**
+     * Substitutes the variables in the value at the provided field path, usually by calling the provided substitutor.
+     */
+    interface FieldSubstitutor {
+        String substitute(String path, String value, UnaryOperator<String> substitutor);
+    }
+
+    private enum Mode {
+        COPY,
+        SHARE,
+        IN_PLACE
+    }
+
+    /**
+     * A single traversal of a tree. The stack holds one frame for each container enclosing the node being visited,
+     * which records the position of that node in the container, so field paths are only built for the values that
+     * need them.
+     */
+    private final class Traversal {
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private StringSubstitutionException failure;
+
+        JsonNode run(JsonNode root) {
+            frames.push(frame(root));
+            JsonNode result = null;
+            while (result == null) {
+                Frame frame = frames.peek();
+                if (frame.hasNext()) {
+                    JsonNode node = frame.next();
+                    if (node.isContainerNode()) {
+                        frames.push(frame(node));
+                    } else {
+                        frame.set(visitValue(node));
+                    }
+                } else {
+                    frames.pop();
+                    if (frames.isEmpty()) {
+                        result = frame.result();
+                    } else {
+                        frames.peek().set(frame.result());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+
+        private JsonNode visitValue(JsonNode node) {
+            if (!node.isTextual()) {
+                return JsonNodeVisitors.dispatch(node, JsonNodeStringReplacer.this);
+            }
             try {
-                newObjectNode.set(field, JsonNodeVisitors.dispatch(node, this));
+                return replace((TextNode) node, this);
             } catch (StringSubstitutionException e) {
-                throw e.extend(field);
+                StringSubstitutionException extended = e;
+                for (Frame frame : frames) {
+                    extended = frame.extend(extended);
+                }
+                if (failure == null) {
+                    failure = extended;
+                } else {
+                    failure.addSuppressed(extended);
+                }
+                return node;
             }
         }
-        return newObjectNode;
+
+        String path() {
+            StringBuilder path = new StringBuilder();
+            Iterator<Frame> outermostFirst = frames.descendingIterator();
+            while (outermostFirst.hasNext()) {
+                outermostFirst.next().appendTo(path);
+            }
+            return path.toString();
+        }
+
+        private Frame frame(JsonNode container) {
+            return container.isArray()
+                    ? new ArrayFrame((ArrayNode) container)
+                    : new ObjectFrame((ObjectNode) container);
+        }
     }
 
-    @Override
-    public JsonNode visitPojo(POJONode pojoNode) {
-        // Anything to do here?
-        return pojoNode;
+    private abstract static class Frame {
+        abstract boolean hasNext();
+
+        /**
+         * Moves to the next node of the container and returns it.
+         */
+        abstract JsonNode next();
+
+        /**
+         * Records the new node for the node returned by the last call of {@link #next}.
+         */
+        abstract void set(JsonNode newNode);
+
+        abstract JsonNode result();
+
+        abstract StringSubstitutionException extend(StringSubstitutionException exception);
+
+        abstract void appendTo(StringBuilder path);
     }
 
-    @Override
-    public JsonNode visitText(TextNode textNode) {
-        return TextNode.valueOf(substitutor.replace(textNode.textValue()));
+    private final class ArrayFrame extends Frame {
+        private final ArrayNode arrayNode;
+        // the node being built; it remains the original node until a copy is needed
+        private ArrayNode newArrayNode;
+        private int index = -1;
+
+        ArrayFrame(ArrayNode arrayNode) {
+            this.arrayNode = arrayNode;
+            this.newArrayNode = mode == Mode.COPY ? arrayNode.arrayNode() : arrayNode;
+        }
+
+        @Override
+        boolean hasNext() {
+            return index + 1 < arrayNode.size();
+        }
+
+        @Override
+        JsonNode next() {
+            index++;
+            return arrayNode.get(index);
+        }
+
+        @Override
+        void set(JsonNode newNode) {
+            if (newArrayNode != arrayNode) {
+                newArrayNode.add(newNode);
+            } else if (newNode != arrayNode.get(index)) {
+                if (mode == Mode.SHARE) {
+                    newArrayNode = copyOfFirstElements(arrayNode, index);
+                    newArrayNode.add(newNode);
+                } else {
+                    arrayNode.set(index, newNode);
+                }
+            }
+        }
+
+        @Override
+        JsonNode result() {
+            return newArrayNode;
+        }
+
+        @Override
+        StringSubstitutionException extend(StringSubstitutionException exception) {
+            return exception.extend(index);
+        }
+
+        @Override
+        void appendTo(StringBuilder path) {
+            path.append('[').append(index).append(']');
+        }
+    }
+
+    private final class ObjectFrame extends Frame {
+        private final ObjectNode objectNode;
+        private final Iterator<Map.Entry<String, JsonNode>> entryIterator;
+        // the node being built; it remains the original node until a copy is needed
+        private ObjectNode newObjectNode;
+        private Map.Entry<String, JsonNode> entry;
+
+        ObjectFrame(ObjectNode objectNode) {
+            this.objectNode = objectNode;
+            this.entryIterator = objectNode.fields();
+            this.newObjectNode = mode == Mode.COPY ? objectNode.objectNode() : objectNode;
+        }
+
+        @Override
+        boolean hasNext() {
+            return entryIterator.hasNext();
+        }
+
+        @Override
+        JsonNode next() {
+            entry = entryIterator.next();
+            return entry.getValue();
+        }
+
+        @Override
+        void set(JsonNode newNode) {
+            String field = entry.getKey();
+            if (newObjectNode != objectNode) {
+                newObjectNode.set(field, newNode);
+            } else if (newNode != entry.getValue()) {
+                if (mode == Mode.SHARE) {
+                    newObjectNode = copyOfFieldsBefore(objectNode, field);
+                    newObjectNode.set(field, newNode);
+                } else {
+                    // replacing the value of an existing field does not invalidate the iterator
+                    objectNode.set(field, newNode);
+                }
+            }
+        }
+
+        @Override
+        JsonNode result() {
+            return newObjectNode;
+        }
+
+        @Override
+        StringSubstitutionException extend(StringSubstitutionException exception) {
+            return exception.extend(entry.getKey());
+        }
+
+        @Override
+        void appendTo(StringBuilder path) {
+            if (path.length() > 0) {
+                path.append('.');
+            }
+            path.append(entry.getKey());
+        }
     }
 }
@@ -0,0 +1,148 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * A {@link JsonNodeVisitor} that produces the same tree as {@link JsonNodeStringReplacer}, but performs the
+ * substitutions concurrently. It first collects the distinct text values of the tree that contain a variable and
+ * submits their substitutions to an {@link Executor}, and then rebuilds the tree using the results. This is useful when
+ * substitutions are expensive, such as decrypting many RSA-encrypted values.
+ *
+ * The tree is rebuilt by a {@link JsonNodeStringReplacer}, so if substitutions fail, the same {@link
+ * com.palantir.config.crypto.util.StringSubstitutionException}s are thrown, with the same field paths and the same
+ * failures reported as suppressed exceptions.
+ */
+public final class ParallelJsonNodeStringReplacer implements JsonNodeVisitor<JsonNode> {
+
+    private final StrSubstitutor substitutor;
+    private final Executor executor;
+    private final JsonNodeStringReplacer serialReplacer;
+
+    /**
+     * Creates a replacer that performs substitutions on the {@link ForkJoinPool#commonPool() common pool}.
+     */
+    public ParallelJsonNodeStringReplacer(StrSubstitutor substitutor) {
+        this(substitutor, ForkJoinPool.commonPool());
+    }
+
+    public ParallelJsonNodeStringReplacer(StrSubstitutor substitutor, Executor executor) {
+        this.substitutor = substitutor;
+        this.executor = executor;
+        this.serialReplacer = new JsonNodeStringReplacer(substitutor);
+    }
+
+    @Override
+    public JsonNode visitArray(ArrayNode arrayNode) {
+        return precomputingReplacer(arrayNode).visitArray(arrayNode);
+    }
+
+    @Override
+    public JsonNode visitBinary(BinaryNode binaryNode) {
+        return serialReplacer.visitBinary(binaryNode);
+    }
+
+    @Override
+    public JsonNode visitBoolean(BooleanNode booleanNode) {
+        return serialReplacer.visitBoolean(booleanNode);
+    }
+
+    @Override
+    public JsonNode visitNull() {
+        return serialReplacer.visitNull();
+    }
+
+    @Override
+    public JsonNode visitMissing() {
+        return serialReplacer.visitMissing();
+    }
+
+    @Override
+    public JsonNode visitNumeric(NumericNode numericNode) {
+        return serialReplacer.visitNumeric(numericNode);
+    }
+
+    @Override
+    public JsonNode visitObject(ObjectNode objectNode) {
+        return precomputingReplacer(objectNode).visitObject(objectNode);
+    }
+
+    @Override
+    public JsonNode visitPojo(POJONode pojoNode) {
+        return serialReplacer.visitPojo(pojoNode);
+    }
+
+    @Override
+    public JsonNode visitText(TextNode textNode) {
+        return serialReplacer.visitText(textNode);
+    }
+
+    private JsonNodeStringReplacer precomputingReplacer(JsonNode root) {
+        Map<String, CompletableFuture<String>> substitutions = new LinkedHashMap<>();
+        collectVariables(root, substitutions);
+        return new JsonNodeStringReplacer(value -> {
+            CompletableFuture<String> substitution = substitutions.get(value);
+            if (substitution == null) {
+                // only values that may contain a variable were collected; the substitutor returns others unchanged
+                return value;
+            }
+            try {
+                return substitution.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        });
+    }
+
+    private void collectVariables(JsonNode root, Map<String, CompletableFuture<String>> substitutions) {
+        Deque<JsonNode> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            JsonNode node = nodes.pop();
+            if (node.isTextual()) {
+                String value = node.textValue();
+                if (!substitutions.containsKey(value) && VariablePrefilter.mayContainVariable(substitutor, value)) {
+                    substitutions.put(value, CompletableFuture.supplyAsync(() -> substitutor.replace(value), executor));
+                }
+            } else if (node.isContainerNode()) {
+                for (JsonNode child : node) {
+                    nodes.push(child);
+                }
+            }
+        }
+    }
+}
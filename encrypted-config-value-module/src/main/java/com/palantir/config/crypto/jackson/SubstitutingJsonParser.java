@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * A {@link JsonParser} that replaces the text values read from another parser using a {@link StrSubstitutor}, as an
+ * alternative to reading a config into a tree and copying it through a {@link JsonNodeStringReplacer}. The parser can
+ * be passed to {@link com.fasterxml.jackson.databind.ObjectMapper#readValue(JsonParser, Class)} or copied to a
+ * {@link com.fasterxml.jackson.core.JsonGenerator}, and holds only one entry for each enclosing object and array, so
+ * its memory does not grow with the size of the document. Field names are not replaced.
+ *
+ * If a substitution fails, the {@link StringSubstitutionException} carries the field path of the value. Jackson
+ * reports it as the cause of a {@link com.fasterxml.jackson.databind.JsonMappingException} when binding.
+ */
+public final class SubstitutingJsonParser extends JsonParserDelegate {
+    private final StrSubstitutor substitutor;
+    private final Deque<Container> containers = new ArrayDeque<>();
+    // the replaced text of the current token, or null if the current token was not replaced
+    private String substituted;
+    private boolean skipping;
+
+    /**
+     * Creates a parser that reads from the provided parser, which may be positioned at any token. The enclosing
+     * objects and arrays are taken from its parsing context, and a current text value is replaced right away.
+     */
+    public SubstitutingJsonParser(JsonParser parser, StrSubstitutor substitutor) throws IOException {
+        super(parser);
+        this.substitutor = substitutor;
+        JsonToken token = parser.getCurrentToken();
+        boolean started = token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY;
+        for (JsonStreamContext context = parser.getParsingContext();
+                context != null && !context.inRoot();
+                context = context.getParent()) {
+            // the context of a container that has just started has no current entry yet
+            boolean current = started && containers.isEmpty();
+            Container container = new Container(context.inArray());
+            container.index = current ? -1 : context.getCurrentIndex();
+            container.field = current ? null : context.getCurrentName();
+            containers.addLast(container);
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            substituteText();
+        }
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        substituted = null;
+        if (token == JsonToken.FIELD_NAME) {
+            containers.peek().field = delegate.getCurrentName();
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+            containers.pop();
+        } else if (token != null) {
+            startValue(token);
+        }
+        return token;
+    }
+
+    private void startValue(JsonToken token) throws IOException {
+        Container container = containers.peek();
+        if (container != null && container.array) {
+            container.index++;
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            containers.push(new Container(token == JsonToken.START_ARRAY));
+        } else if (token == JsonToken.VALUE_STRING && !skipping) {
+            substituteText();
+        }
+    }
+
+    private void substituteText() throws IOException {
+        String value = delegate.getText();
+        if (VariablePrefilter.mayContainVariable(substitutor, value)) {
+            substituted = substitute(value);
+        }
+    }
+
+    private String substitute(String value) {
+        try {
+            return substitutor.replace(value);
+        } catch (StringSubstitutionException e) {
+            StringSubstitutionException extended = e;
+            for (Container container : containers) {
+                extended = container.array ? extended.extend(container.index) : extended.extend(container.field);
+            }
+            throw extended;
+        }
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        return token == JsonToken.FIELD_NAME ? nextToken() : token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if (getCurrentToken() != JsonToken.START_OBJECT && getCurrentToken() != JsonToken.START_ARRAY) {
+            return this;
+        }
+        // the skipped values are not replaced, but their containers must still be tracked
+        int depth = containers.size();
+        skipping = true;
+        try {
+            JsonToken token = nextToken();
+            while (token != null && containers.size() >= depth) {
+                token = nextToken();
+            }
+        } finally {
+            skipping = false;
+        }
+        return this;
+    }
+
+    @Override
+    public String getText() throws IOException {
+        return substituted == null ? delegate.getText() : substituted;
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return substituted == null && delegate.hasTextCharacters();
+    }
+
+    @Override
+    public char[] getTextCharacters() throws IOException {
+        return substituted == null ? delegate.getTextCharacters() : substituted.toCharArray();
+    }
+
+    @Override
+    public int getTextLength() throws IOException {
+        return substituted == null ? delegate.getTextLength() : substituted.length();
+    }
+
+    @Override
+    public int getTextOffset() throws IOException {
+        return substituted == null ? delegate.getTextOffset() : 0;
+    }
+
+    @Override
+    public String getValueAsString() throws IOException {
+        return substituted == null ? delegate.getValueAsString() : substituted;
+    }
+
+    @Override
+    public String getValueAsString(String defaultValue) throws IOException {
+        return substituted == null ? delegate.getValueAsString(defaultValue) : substituted;
+    }
+
+    private static final class Container {
+        private final boolean array;
+        private int index = -1;
+        private String field;
+
+        Container(boolean array) {
+            this.array = array;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+
+/**
+ * Thrown by an {@link EncryptedConfigModule} when a value cannot be substituted. Jackson adds the path of the value to
+ * the exception as it passes through the deserializers of the enclosing beans, maps and collections, and
+ * {@link #getField()} returns that path in the form used by {@link StringSubstitutionException#getField()}, such as
+ * "a.b[2].c". Untyped values and collections of strings do not report their positions to Jackson, so their paths end
+ * at the enclosing field.
+ */
+public final class SubstitutionMappingException extends JsonMappingException {
+    private static final long serialVersionUID = 1L;
+
+    private final String value;
+
+    SubstitutionMappingException(StringSubstitutionException cause, JsonLocation location) {
+        super("The value '" + cause.getValue() + "' could not be replaced", location, cause);
+        this.value = cause.getValue();
+    }
+
+    public String getField() {
+        StringBuilder field = new StringBuilder();
+        for (Reference reference : getPath()) {
+            if (reference.getFieldName() != null) {
+                if (field.length() > 0) {
+                    field.append('.');
+                }
+                field.append(reference.getFieldName());
+            } else if (reference.getIndex() >= 0) {
+                field.append('[').append(reference.getIndex()).append(']');
+            }
+        }
+        return field.toString();
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import org.apache.commons.lang3.text.StrMatcher;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+/**
+ * Determines whether a string may contain a variable of a {@link StrSubstitutor} without calling {@link
+ * StrSubstitutor#replace(String)}, which copies every string it is given before looking for variables. A string
+ * without a variable prefix is returned unchanged by the substitutor, since escaped variables also contain the prefix.
+ */
+final class VariablePrefilter {
+    private static final String DEFAULT_PREFIX = "${";
+
+    private VariablePrefilter() {}
+
+    static boolean mayContainVariable(StrSubstitutor substitutor, String value) {
+        StrMatcher prefixMatcher = substitutor.getVariablePrefixMatcher();
+        if (prefixMatcher == StrSubstitutor.DEFAULT_PREFIX) {
+            // String.indexOf is intrinsified by the JIT, which compares several characters per instruction
+            return value.indexOf(DEFAULT_PREFIX) >= 0;
+        }
+        // a substitutor without a prefix matcher cannot be prefiltered
+        if (prefixMatcher == null) {
+            return true;
+        }
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (prefixMatcher.isMatch(chars, i, 0, chars.length) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
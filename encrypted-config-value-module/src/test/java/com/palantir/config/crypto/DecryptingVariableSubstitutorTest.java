@@ -20,6 +20,8 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.palantir.config.crypto.algorithm.Algorithm;
@@ -28,6 +30,7 @@ import com.palantir.config.crypto.util.SystemProxy;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -105,6 +108,27 @@ public class DecryptingVariableSubstitutorTest {
         assertThat(substitutor.replace("${" + encrypt("abc") + "}"), is("abc"));
     }
 
+    @Test
+    public final void keySourceIsOnlyCheckedOnce() throws Exception {
+        assertThat(substitutor.replace("${" + encrypt("abc") + "}"), is("abc"));
+        assertThat(substitutor.replace("${" + encrypt("def") + "}"), is("def"));
+
+        verify(systemProxy, times(1)).getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME);
+    }
+
+    @Test
+    public final void cachedValuesAreOnlyDecryptedOnce() {
+        DecryptedValueCache cache = DecryptedValueCache.create(1024 * 1024, Duration.ofMinutes(1));
+        substitutor = new DecryptingVariableSubstitutor(systemProxy, cache);
+        String encrypted = encrypt("abc");
+
+        assertThat(substitutor.replace("${" + encrypted + "}"), is("abc"));
+        assertThat(substitutor.replace("${" + encrypted + "}"), is("abc"));
+
+        assertThat(cache.stats().loadCount(), is(1L));
+        assertThat(cache.stats().hitCount(), is(1L));
+    }
+
     private String encrypt(String value) {
         return ALGORITHM.newEncrypter().encrypt(KEY_PAIR.encryptionKey(), value).toString();
     }
@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.palantir.config.crypto.DecryptedValueCache;
+import com.palantir.config.crypto.DecryptingVariableSubstitutor;
+import com.palantir.config.crypto.KeyEnvVarUtils;
+import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.jackson.FieldDecryptionProfile.CacheStatus;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import com.palantir.config.crypto.util.SystemProxy;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class ConfigDecryptionProfilerTest {
+    private static final File CONFIG_FILE = new File("src/test/resources/testConfig.yml");
+
+    static {
+        System.setProperty(KeyFileUtils.KEY_PATH_PROPERTY, "src/test/resources/test.key");
+    }
+
+    private final DecryptedValueCache cache = DecryptedValueCache.create(1_000_000, Duration.ofMinutes(1));
+    private ConfigDecryptionProfiler profiler;
+    private JsonNode tree;
+
+    @Before
+    public void before() throws IOException {
+        SystemProxy systemProxy = mock(SystemProxy.class);
+        when(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)).thenReturn("");
+        profiler = new ConfigDecryptionProfiler(new DecryptingVariableSubstitutor(systemProxy, cache));
+        tree = new YAMLMapper().readTree(CONFIG_FILE);
+    }
+
+    @Test
+    public void eachEncryptedFieldIsProfiled() {
+        JsonNode result = JsonNodeVisitors.dispatch(tree, profiler);
+
+        assertThat(result.get("encrypted").textValue(), is("value"));
+        ConfigDecryptionProfile profile = profiler.getProfile();
+        assertThat(paths(profile), contains(
+                "encrypted",
+                "encryptedWithSingleQuote",
+                "encryptedWithDoubleQuote",
+                "encryptedMalformedYaml",
+                "arrayWithSomeEncryptedValues[0]",
+                "arrayWithSomeEncryptedValues[3]",
+                "pojoWithEncryptedValues.password"));
+        assertThat(cacheStatuses(profile), contains(
+                CacheStatus.MISS, CacheStatus.MISS, CacheStatus.MISS, CacheStatus.MISS,
+                CacheStatus.HIT, CacheStatus.HIT, CacheStatus.HIT));
+        assertThat(profile.getFields().get(0).getAlgorithm(), is(Optional.of(Algorithm.AES)));
+        assertThat(profile.getFields().get(4).getAlgorithm(), is(Optional.empty()));
+        assertThat(profile.getBindingTime(), is(Optional.empty()));
+    }
+
+    @Test
+    public void eachTraversalIsProfiledSeparately() {
+        JsonNodeVisitors.dispatch(tree, profiler);
+        JsonNodeVisitors.dispatch(tree, profiler);
+
+        assertThat(cacheStatuses(profiler.getProfile()), contains(
+                CacheStatus.HIT, CacheStatus.HIT, CacheStatus.HIT, CacheStatus.HIT,
+                CacheStatus.HIT, CacheStatus.HIT, CacheStatus.HIT));
+    }
+
+    @Test
+    public void fieldsAfterAFailingFieldAreProfiled() throws IOException {
+        String otherKeyValue = Algorithm.AES.newEncrypter()
+                .encrypt(Algorithm.AES.newKeyPair().encryptionKey(), "value")
+                .toString();
+        JsonNode failingTree = new YAMLMapper().readTree("failing: '${" + otherKeyValue + "}'\n"
+                + "encrypted: '" + tree.get("encrypted").textValue() + "'");
+
+        try {
+            JsonNodeVisitors.dispatch(failingTree, profiler);
+            fail();
+        } catch (StringSubstitutionException e) {
+            assertThat(e.getField(), is("failing"));
+        }
+
+        assertThat(paths(profiler.getProfile()), contains("failing", "encrypted"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thereIsNoProfileBeforeTheFirstTraversal() {
+        profiler.getProfile();
+    }
+
+    private static List<String> paths(ConfigDecryptionProfile profile) {
+        return profile.getFields().stream().map(FieldDecryptionProfile::getPath).collect(Collectors.toList());
+    }
+
+    private static List<CacheStatus> cacheStatuses(ConfigDecryptionProfile profile) {
+        return profile.getFields().stream().map(FieldDecryptionProfile::getCacheStatus).collect(Collectors.toList());
+    }
+}
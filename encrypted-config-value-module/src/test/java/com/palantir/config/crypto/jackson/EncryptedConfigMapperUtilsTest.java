@@ -21,7 +21,9 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +34,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.palantir.config.crypto.KeyEnvVarUtils;
 import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.Secret;
 import com.palantir.config.crypto.util.SystemProxy;
 import java.io.File;
 import java.io.IOException;
@@ -93,6 +96,18 @@ public class EncryptedConfigMapperUtilsTest {
                         .and(hasProperty("password", equalTo("value"))));
     }
 
+    @Test
+    public final void testSecretsAreDecryptedOnFirstUse() throws IOException {
+        String encryptedValue = "enc:INNv4cGkVF45MLWZhgVZdIsgQ4zKvbMoJ978Es3MIKgrtz5eeTuOCLM1vPbQm97ejz2EK6M=";
+        SecretConfig config = EncryptedConfigMapperUtils.getConfig(
+                "lazy: " + encryptedValue + "\nsubstituted: ${" + encryptedValue + "}", SecretConfig.class, MAPPER);
+
+        assertFalse(config.getLazy().isDecrypted());
+        assertTrue(config.getSubstituted().isDecrypted());
+        assertEquals("value", config.getLazy().get());
+        assertEquals("value", config.getSubstituted().get());
+    }
+
     @Value.Immutable
     @JsonSerialize(as = ImmutablePerson.class)
     @JsonDeserialize(as = ImmutablePerson.class)
@@ -102,6 +117,24 @@ public class EncryptedConfigMapperUtilsTest {
         String getPassword();
     }
 
+    public static final class SecretConfig {
+        private final Secret lazy;
+        private final Secret substituted;
+
+        public SecretConfig(@JsonProperty("lazy") Secret lazy, @JsonProperty("substituted") Secret substituted) {
+            this.lazy = lazy;
+            this.substituted = substituted;
+        }
+
+        public Secret getLazy() {
+            return lazy;
+        }
+
+        public Secret getSubstituted() {
+            return substituted;
+        }
+    }
+
     public static final class TestConfig {
         private final String unencrypted;
         private final String encrypted;
@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.palantir.config.crypto.DecryptingVariableSubstitutor;
+import com.palantir.config.crypto.KeyEnvVarUtils;
+import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import com.palantir.config.crypto.util.SystemProxy;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class EncryptedConfigModuleTest {
+    private static final File CONFIG_FILE = new File("src/test/resources/testConfig.yml");
+    private static final String ENCRYPTED_VALUE =
+            "${enc:INNv4cGkVF45MLWZhgVZdIsgQ4zKvbMoJ978Es3MIKgrtz5eeTuOCLM1vPbQm97ejz2EK6M=}";
+
+    static {
+        System.setProperty(KeyFileUtils.KEY_PATH_PROPERTY, "src/test/resources/test.key");
+    }
+
+    private ObjectMapper mapper;
+
+    @Before
+    public void before() {
+        SystemProxy systemProxy = mock(SystemProxy.class);
+        when(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)).thenReturn("");
+        mapper = new YAMLMapper().registerModule(
+                new EncryptedConfigModule(new DecryptingVariableSubstitutor(systemProxy)));
+    }
+
+    @Test
+    public void valuesAreDecryptedWhileBinding() throws IOException {
+        EncryptedConfigMapperUtilsTest.TestConfig config =
+                mapper.readValue(CONFIG_FILE, EncryptedConfigMapperUtilsTest.TestConfig.class);
+
+        assertThat(config.getUnencrypted(), is("value"));
+        assertThat(config.getEncrypted(), is("value"));
+        assertThat(config.getEncryptedWithSingleQuote(), is("don't use quotes"));
+        assertThat(config.getEncryptedWithDoubleQuote(), is("double quote is \""));
+        assertThat(config.getEncryptedMalformedYaml(), is("[oh dear"));
+        assertThat(config.getArrayWithSomeEncryptedValues(), contains("value", "value", "other value", "[oh dear"));
+        assertThat(config.getPojoWithEncryptedValues().getPassword(), is("value"));
+    }
+
+    @Test
+    public void untypedValuesAndCharArraysAreDecrypted() throws IOException {
+        Map<String, Object> untyped = mapper.readValue(
+                "a: [1, {b: '" + ENCRYPTED_VALUE + "'}]", new TypeReference<Map<String, Object>>() {});
+        char[] chars = mapper.readValue("'" + ENCRYPTED_VALUE + "'", char[].class);
+
+        assertThat(untyped.toString(), is("{a=[1, {b=value}]}"));
+        assertThat(new String(chars), is("value"));
+    }
+
+    @Test
+    public void failuresCarryTheFieldPathOfTheValue() throws IOException {
+        try {
+            mapper.readValue("a: [{b: plain}, {b: '${enc:bad}'}]",
+                    new TypeReference<Map<String, List<Map<String, String>>>>() {});
+            fail();
+        } catch (SubstitutionMappingException e) {
+            assertThat(e.getField(), is("a[1].b"));
+            assertThat(e.getValue(), is("enc:bad"));
+            assertThat(e.getCause(), instanceOf(StringSubstitutionException.class));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.lang3.text.StrLookup;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class JsonNodeStringReplacerEventsTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final StrSubstitutor substitutor = new StrSubstitutor(new StrLookup<String>() {
+        @Override
+        public String lookup(String key) {
+            return key.toUpperCase();
+        }
+    });
+
+    @Test
+    public void substitutionsAreRecordedWithTheirFieldPaths() throws IOException {
+        JsonNode tree = MAPPER.readTree(
+                "{\"a\": {\"b\": \"${x}\", \"c\": \"plain\"}, \"d\": [1, {\"e\": \"${y}\"}, \"${z}\"]}");
+        JsonNodeStringReplacer replacer = JsonNodeStringReplacer.inPlace(substitutor);
+
+        Path dump = temporaryFolder.newFile().toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable("com.palantir.config.crypto.ConfigSubstitution");
+            recording.enable("com.palantir.config.crypto.ValueSubstitution").withoutThreshold();
+            recording.start();
+            JsonNodeVisitors.dispatch(tree, replacer);
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+        assertThat(tree, is(MAPPER.readTree(
+                "{\"a\": {\"b\": \"X\", \"c\": \"plain\"}, \"d\": [1, {\"e\": \"Y\"}, \"Z\"]}")));
+        assertThat(values(events, "ValueSubstitution", "path"), contains("a.b", "d[1].e", "d[2]"));
+        assertThat(values(events, "ConfigSubstitution", "failure"), contains((String) null));
+    }
+
+    private static List<String> values(List<RecordedEvent> events, String eventName, String field) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.palantir.config.crypto." + eventName))
+                .map(event -> event.getString(field))
+                .collect(Collectors.toList());
+    }
+}
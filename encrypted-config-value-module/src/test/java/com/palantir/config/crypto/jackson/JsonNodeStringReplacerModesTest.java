@@ -0,0 +1,160 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.text.StrLookup;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.Test;
+
+public final class JsonNodeStringReplacerModesTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String TREE = "{'a': {'b': 'plain', 'c': [1, 'two']}, "
+            + "'d': ['first', '${x}', {'e': 'last'}], 'f': '${y}', 'g': {'h': null}}";
+    private static final String SUBSTITUTED_TREE = "{'a': {'b': 'plain', 'c': [1, 'two']}, "
+            + "'d': ['first', 'X', {'e': 'last'}], 'f': 'Y', 'g': {'h': null}}";
+
+    private final StrSubstitutor substitutor = new StrSubstitutor(new StrLookup<String>() {
+        @Override
+        public String lookup(String key) {
+            if (key.startsWith("bad")) {
+                throw new StringSubstitutionException(new IllegalArgumentException(), key);
+            }
+            return key.toUpperCase();
+        }
+    });
+
+    @Test
+    public void sharingReplacerReusesUnchangedSubtrees() throws IOException {
+        JsonNode tree = json(TREE);
+        JsonNode result = JsonNodeVisitors.dispatch(tree, JsonNodeStringReplacer.sharingUnchanged(substitutor));
+
+        assertThat(result, is(json(SUBSTITUTED_TREE)));
+        assertThat(tree, is(json(TREE)));
+        assertThat(result, not(sameInstance(tree)));
+        assertThat(result.get("a"), sameInstance(tree.get("a")));
+        assertThat(result.get("g"), sameInstance(tree.get("g")));
+        assertThat(result.get("d"), not(sameInstance(tree.get("d"))));
+        assertThat(result.get("d").get(0), sameInstance(tree.get("d").get(0)));
+        assertThat(result.get("d").get(2), sameInstance(tree.get("d").get(2)));
+    }
+
+    @Test
+    public void sharingReplacerPreservesFieldOrder() throws IOException {
+        JsonNode result = JsonNodeVisitors.dispatch(
+                json("{'a': 1, 'b': '${x}', 'c': 3}"), JsonNodeStringReplacer.sharingUnchanged(substitutor));
+
+        assertThat(ImmutableList.copyOf(result.fieldNames()), contains("a", "b", "c"));
+    }
+
+    @Test
+    public void sharingReplacerReturnsTheOriginalTreeWithoutSubstitutions() throws IOException {
+        JsonNode tree = json("{'a': ['plain', 1, {'b': true}], 'c': '$${escaped}'}");
+        JsonNode result = JsonNodeVisitors.dispatch(tree, JsonNodeStringReplacer.sharingUnchanged(substitutor));
+
+        assertThat(result.get("a"), sameInstance(tree.get("a")));
+        assertThat(result.get("c").textValue(), is("${escaped}"));
+    }
+
+    @Test
+    public void inPlaceReplacerModifiesTheOriginalTree() throws IOException {
+        JsonNode tree = json(TREE);
+        JsonNode nested = tree.get("d");
+        JsonNode result = JsonNodeVisitors.dispatch(tree, JsonNodeStringReplacer.inPlace(substitutor));
+
+        assertThat(result, sameInstance(tree));
+        assertThat(result.get("d"), sameInstance(nested));
+        assertThat(result, is(json(SUBSTITUTED_TREE)));
+    }
+
+    @Test
+    public void allModesProduceTheSameTree() throws IOException {
+        JsonNode expected = JsonNodeVisitors.dispatch(json(TREE), new JsonNodeStringReplacer(substitutor));
+
+        assertThat(JsonNodeVisitors.dispatch(json(TREE), JsonNodeStringReplacer.sharingUnchanged(substitutor)),
+                is(expected));
+        assertThat(JsonNodeVisitors.dispatch(json(TREE), JsonNodeStringReplacer.inPlace(substitutor)),
+                is(expected));
+    }
+
+    @Test
+    public void failuresIncludeThePathInEveryMode() throws IOException {
+        for (JsonNodeStringReplacer replacer : ImmutableList.of(
+                new JsonNodeStringReplacer(substitutor),
+                JsonNodeStringReplacer.sharingUnchanged(substitutor),
+                JsonNodeStringReplacer.inPlace(substitutor))) {
+            try {
+                JsonNodeVisitors.dispatch(json("{'a': ['${x}', {'b': '${bad}'}]}"), replacer);
+                fail();
+            } catch (StringSubstitutionException e) {
+                assertThat(e.getField(), is("a[1].b"));
+            }
+        }
+    }
+
+    @Test
+    public void everyFailureIsReportedFromOnePass() throws IOException {
+        JsonNode tree = json("{'a': ['${bad1}', {'b': '${x}'}], 'c': {'d': '${bad2}'}, 'e': '${bad3}'}");
+        try {
+            JsonNodeVisitors.dispatch(tree, JsonNodeStringReplacer.inPlace(substitutor));
+            fail();
+        } catch (StringSubstitutionException e) {
+            assertThat(e.getField(), is("a[0]"));
+            assertThat(Arrays.stream(e.getSuppressed())
+                    .map(suppressed -> ((StringSubstitutionException) suppressed).getField())
+                    .collect(Collectors.toList()), contains("c.d", "e"));
+            assertThat(tree.get("a").get(1).get("b").textValue(), is("X"));
+        }
+    }
+
+    @Test
+    public void deeplyNestedTreesDoNotOverflowTheStack() {
+        int depth = 100_000;
+        ObjectNode tree = JsonNodeFactory.instance.objectNode();
+        ObjectNode node = tree;
+        for (int level = 0; level < depth; level++) {
+            node = node.putArray("a").addObject();
+        }
+        node.put("b", "${x}");
+
+        JsonNode result = JsonNodeVisitors.dispatch(tree, new JsonNodeStringReplacer(substitutor));
+
+        for (int level = 0; level < depth; level++) {
+            result = result.get("a").get(0);
+        }
+        assertThat(result.get("b").textValue(), is("X"));
+    }
+
+    private static JsonNode json(String value) throws IOException {
+        return MAPPER.readTree(value.replace('\'', '"'));
+    }
+}
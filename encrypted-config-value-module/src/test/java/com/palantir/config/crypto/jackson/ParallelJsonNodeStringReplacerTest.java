@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.lang3.text.StrLookup;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class ParallelJsonNodeStringReplacerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Set<String> lookupThreads = ConcurrentHashMap.newKeySet();
+    private final StrSubstitutor substitutor = new StrSubstitutor(new StrLookup<String>() {
+        @Override
+        public String lookup(String key) {
+            lookupThreads.add(Thread.currentThread().getName());
+            if (key.startsWith("bad")) {
+                throw new StringSubstitutionException(new IllegalArgumentException(), key);
+            }
+            return key.toUpperCase();
+        }
+    });
+
+    private ExecutorService executor;
+    private ParallelJsonNodeStringReplacer replacer;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(4);
+        replacer = new ParallelJsonNodeStringReplacer(substitutor, executor);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void producesTheSameTreeAsTheSerialReplacer() throws IOException {
+        JsonNode tree = json("{'a': '${x}', 'b': ['plain', '${y} and ${x}', 1, null, true], "
+                + "'c': {'d': '${x}', 'e': '$${escaped}'}, 'f': 2.5}");
+
+        assertThat(JsonNodeVisitors.dispatch(tree, replacer),
+                is(JsonNodeVisitors.dispatch(tree, new JsonNodeStringReplacer(substitutor))));
+        assertThat(JsonNodeVisitors.dispatch(tree, replacer),
+                is(json("{'a': 'X', 'b': ['plain', 'Y and X', 1, null, true], "
+                        + "'c': {'d': 'X', 'e': '${escaped}'}, 'f': 2.5}")));
+    }
+
+    @Test
+    public void substitutionsRunOnTheExecutor() throws IOException {
+        JsonNodeVisitors.dispatch(json("{'a': '${x}', 'b': '${y}'}"), replacer);
+
+        assertThat(lookupThreads.contains(Thread.currentThread().getName()), is(false));
+    }
+
+    @Test
+    public void failuresReportTheFieldPathOfTheFirstFailingValue() throws IOException {
+        JsonNode tree = json("{'key1': '${x}', 'key2': [1, 2, {'key': '${bad1}'}, '${bad2}']}");
+
+        try {
+            JsonNodeVisitors.dispatch(tree, replacer);
+            fail();
+        } catch (StringSubstitutionException e) {
+            assertThat(e.getValue(), is("bad1"));
+            assertThat(e.getField(), is("key2[2].key"));
+        }
+    }
+
+    private static JsonNode json(String json) throws IOException {
+        return MAPPER.readTree(json.replace('\'', '"'));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.palantir.config.crypto.DecryptingVariableSubstitutor;
+import com.palantir.config.crypto.KeyEnvVarUtils;
+import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.util.StringSubstitutionException;
+import com.palantir.config.crypto.util.SystemProxy;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class SubstitutingJsonParserTest {
+    private static final File CONFIG_FILE = new File("src/test/resources/testConfig.yml");
+    private static final String ENCRYPTED_VALUE =
+            "${enc:INNv4cGkVF45MLWZhgVZdIsgQ4zKvbMoJ978Es3MIKgrtz5eeTuOCLM1vPbQm97ejz2EK6M=}";
+    private static final YAMLMapper MAPPER = new YAMLMapper();
+
+    static {
+        System.setProperty(KeyFileUtils.KEY_PATH_PROPERTY, "src/test/resources/test.key");
+    }
+
+    private DecryptingVariableSubstitutor substitutor;
+
+    @Before
+    public void before() {
+        SystemProxy systemProxy = mock(SystemProxy.class);
+        when(systemProxy.getenv(KeyEnvVarUtils.ENCRYPTION_KEY_NAME)).thenReturn("");
+        substitutor = new DecryptingVariableSubstitutor(systemProxy);
+    }
+
+    @Test
+    public void valuesAreDecryptedWhileBinding() throws IOException {
+        EncryptedConfigMapperUtilsTest.TestConfig config = MAPPER.readValue(
+                new SubstitutingJsonParser(MAPPER.getFactory().createParser(CONFIG_FILE), substitutor),
+                EncryptedConfigMapperUtilsTest.TestConfig.class);
+
+        assertThat(config.getUnencrypted(), is("value"));
+        assertThat(config.getEncrypted(), is("value"));
+        assertThat(config.getEncryptedWithSingleQuote(), is("don't use quotes"));
+        assertThat(config.getEncryptedMalformedYaml(), is("[oh dear"));
+        assertThat(config.getArrayWithSomeEncryptedValues(), contains("value", "value", "other value", "[oh dear"));
+        assertThat(config.getPojoWithEncryptedValues().getPassword(), is("value"));
+    }
+
+    @Test
+    public void valuesAreDecryptedWhileCopying() throws IOException {
+        JsonFactory factory = new JsonFactory();
+        StringWriter writer = new StringWriter();
+        try (JsonParser parser = new SubstitutingJsonParser(
+                factory.createParser("{\"a\":[1,\"" + ENCRYPTED_VALUE + "\"],\"b\":\"plain\"}"), substitutor);
+                JsonGenerator generator = factory.createGenerator(writer)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+
+        assertThat(writer.toString(), is("{\"a\":[1,\"value\"],\"b\":\"plain\"}"));
+    }
+
+    @Test
+    public void skippedValuesAreNotDecrypted() throws IOException {
+        JsonParser parser = new SubstitutingJsonParser(
+                MAPPER.getFactory().createParser("{skipped: {a: '${enc:bad}'}, b: '" + ENCRYPTED_VALUE + "'}"),
+                substitutor);
+
+        parser.nextToken();
+        parser.nextValue();
+        parser.skipChildren();
+
+        assertThat(parser.nextValue(), is(JsonToken.VALUE_STRING));
+        assertThat(parser.getText(), is("value"));
+    }
+
+    @Test
+    public void failuresCarryTheFieldPathOfTheValue() throws IOException {
+        JsonParser parser = new SubstitutingJsonParser(
+                MAPPER.getFactory().createParser("a: [{b: plain}, {b: '${enc:bad}'}]"), substitutor);
+        try {
+            while (parser.nextToken() != null) {
+                // read until the value that cannot be decrypted
+            }
+            fail();
+        } catch (StringSubstitutionException e) {
+            assertThat(e.getField(), is("a[1].b"));
+            assertThat(e.getValue(), is("enc:bad"));
+        }
+    }
+
+    @Test
+    public void parsersMayBeWrappedAtAnyToken() throws IOException {
+        JsonParser delegate = new JsonFactory().createParser(
+                "{\"a\":{\"b\":\"" + ENCRYPTED_VALUE + "\",\"c\":[\"" + ENCRYPTED_VALUE + "\"]},\"d\":\"plain\"}");
+        delegate.nextToken();
+        delegate.nextToken();
+        delegate.nextToken();
+        assertThat(delegate.nextToken(), is(JsonToken.FIELD_NAME));
+
+        JsonParser parser = new SubstitutingJsonParser(delegate, substitutor);
+        List<String> values = new ArrayList<>();
+        for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+            if (token == JsonToken.VALUE_STRING) {
+                values.add(parser.getText());
+            }
+        }
+
+        assertThat(values, contains("value", "value", "plain"));
+    }
+
+    @Test
+    public void currentValuesAreSubstituted() throws IOException {
+        JsonParser delegate = new JsonFactory().createParser("{\"a\":[\"" + ENCRYPTED_VALUE + "\",\"${enc:bad}\"]}");
+        delegate.nextToken();
+        delegate.nextToken();
+        delegate.nextToken();
+        assertThat(delegate.nextToken(), is(JsonToken.VALUE_STRING));
+
+        assertThat(new SubstitutingJsonParser(delegate, substitutor).getText(), is("value"));
+
+        delegate.nextToken();
+        try {
+            new SubstitutingJsonParser(delegate, substitutor);
+            fail();
+        } catch (StringSubstitutionException e) {
+            assertThat(e.getField(), is("a[1]"));
+        }
+    }
+}
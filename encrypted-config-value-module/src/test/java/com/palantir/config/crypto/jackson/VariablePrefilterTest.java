@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jackson;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import org.apache.commons.lang3.text.StrSubstitutor;
+import org.junit.Test;
+
+public final class VariablePrefilterTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StrSubstitutor substitutor = new StrSubstitutor(ImmutableMap.of("x", "X"));
+
+    @Test
+    public void detectsTheDefaultPrefix() {
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "${x}"), is(true));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "a ${x} b"), is(true));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "$${x}"), is(true));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "${"), is(true));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "host.example.com"), is(false));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "$ {x}"), is(false));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, "{x}$"), is(false));
+        assertThat(VariablePrefilter.mayContainVariable(substitutor, ""), is(false));
+    }
+
+    @Test
+    public void detectsCustomPrefixes() {
+        StrSubstitutor customSubstitutor = new StrSubstitutor(ImmutableMap.of("x", "X"), "%(", ")");
+
+        assertThat(VariablePrefilter.mayContainVariable(customSubstitutor, "a %(x) b"), is(true));
+        assertThat(VariablePrefilter.mayContainVariable(customSubstitutor, "a ${x} b"), is(false));
+    }
+
+    @Test
+    public void replacerSkipsTextWithoutVariables() throws IOException {
+        JsonNode tree = MAPPER.readTree("[\"plain\", \"${x}\", \"$${x}\", \"other\", 1]");
+        JsonNodeStringReplacer replacer = new JsonNodeStringReplacer(substitutor);
+
+        JsonNode result = JsonNodeVisitors.dispatch(tree, replacer);
+
+        assertThat(result, is(MAPPER.readTree("[\"plain\", \"X\", \"${x}\", \"other\", 1]")));
+        assertThat(result.get(0), sameInstance(tree.get(0)));
+        assertThat(replacer.getTextNodeCount(), is(4L));
+        assertThat(replacer.getSkippedTextNodeCount(), is(2L));
+    }
+}
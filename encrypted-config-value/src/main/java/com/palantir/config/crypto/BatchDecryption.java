@@ -0,0 +1,202 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.AesGcmDecrypter;
+import com.palantir.config.crypto.algorithm.aes.AesKey;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Key;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305Decrypter;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EcPrivateKey;
+import com.palantir.config.crypto.algorithm.ec.EciesDecrypter;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeDecrypter;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepDecrypter;
+import com.palantir.config.crypto.algorithm.rsa.RsaPrivateKey;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+final class BatchDecryption {
+    private BatchDecryption() {
+        /* do not instantiate */
+    }
+
+    static List<DecryptionResult> decryptAll(KeyWithType kwt, Collection<? extends EncryptedValue> values) {
+        List<EncryptedValue> inputs = new ArrayList<>(values);
+        Map<Group, List<Integer>> indicesByGroup = new EnumMap<>(Group.class);
+        for (int i = 0; i < inputs.size(); i++) {
+            indicesByGroup.computeIfAbsent(inputs.get(i).accept(GroupVisitor.INSTANCE), group -> new ArrayList<>())
+                    .add(i);
+        }
+
+        DecryptionResult[] results = new DecryptionResult[inputs.size()];
+        indicesByGroup.forEach((group, indices) -> decryptGroup(kwt, group, inputs, indices, results));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private static void decryptGroup(KeyWithType kwt, Group group, List<EncryptedValue> inputs, List<Integer> indices,
+            DecryptionResult[] results) {
+        GroupDecrypter decrypter;
+        try {
+            decrypter = group.decrypter(kwt);
+        } catch (RuntimeException e) {
+            // the key cannot decrypt any value in this group
+            DecryptionResult failure = DecryptionResult.failure(e);
+            indices.forEach(index -> {
+                results[index] = failure;
+                DecryptionListeners.decryptionFailed(inputs.get(index), kwt, e);
+            });
+            return;
+        }
+        // legacy values are decrypted by EncryptedValue#decrypt, which records its own event
+        BiFunction<EncryptedValue, KeyWithType, String> decryption =
+                (encryptedValue, key) -> decrypter.decrypt(encryptedValue);
+        for (int index : indices) {
+            EncryptedValue value = inputs.get(index);
+            try {
+                results[index] = DecryptionResult.success(DecryptionListeners.decrypt(value, kwt,
+                        () -> group == Group.LEGACY
+                                ? decrypter.decrypt(value)
+                                : JfrEvents.decryption(value, kwt, decryption)));
+            } catch (RuntimeException e) {
+                results[index] = DecryptionResult.failure(e);
+            }
+        }
+    }
+
+    /**
+     * The values in each group are decrypted with a {@link GroupDecrypter} that is created, and that validates the
+     * key, once for the whole group.
+     */
+    private enum Group {
+        AES {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                KeyType.AES.checkKeyArgument(kwt, AesKey.class);
+                AesKey aesKey = (AesKey) kwt.getKey();
+                return value -> {
+                    AesEncryptedValue aesValue = (AesEncryptedValue) value;
+                    return AesGcmDecrypter.decrypt(
+                            aesKey, aesValue.getIv(), aesValue.getCiphertext(), aesValue.getTag());
+                };
+            }
+        },
+        RSA {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                KeyType.RSA_PRIVATE.checkKeyArgument(kwt, RsaPrivateKey.class);
+                RsaPrivateKey privateKey = (RsaPrivateKey) kwt.getKey();
+                return value -> {
+                    RsaEncryptedValue rsaValue = (RsaEncryptedValue) value;
+                    return RsaOaepDecrypter.decrypt(privateKey,
+                            rsaValue.getCiphertext(), rsaValue.getOaepHashAlg(), rsaValue.getMdf1HashAlg());
+                };
+            }
+        },
+        RSA_ENVELOPE {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                KeyType.RSA_PRIVATE.checkKeyArgument(kwt, RsaPrivateKey.class);
+                RsaPrivateKey privateKey = (RsaPrivateKey) kwt.getKey();
+                // values encrypted in the same batch share a data key, which is only unwrapped for the first of them
+                return value -> RsaEnvelopeDecrypter.decrypt(privateKey, (RsaEnvelopeEncryptedValue) value);
+            }
+        },
+        EC {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                KeyType.EC_PRIVATE.checkKeyArgument(kwt, EcPrivateKey.class);
+                EcPrivateKey privateKey = (EcPrivateKey) kwt.getKey();
+                return value -> {
+                    EciesEncryptedValue ecValue = (EciesEncryptedValue) value;
+                    return EciesDecrypter.decrypt(privateKey,
+                            ecValue.getEphemeralKey(), ecValue.getCiphertext(), ecValue.getTag());
+                };
+            }
+        },
+        CHACHA20_POLY1305 {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                KeyType.CHACHA20.checkKeyArgument(kwt, ChaCha20Key.class);
+                ChaCha20Key key = (ChaCha20Key) kwt.getKey();
+                return value -> {
+                    ChaCha20Poly1305EncryptedValue chaChaValue = (ChaCha20Poly1305EncryptedValue) value;
+                    return ChaCha20Poly1305Decrypter.decrypt(key,
+                            chaChaValue.getNonce(), chaChaValue.getCiphertext(), chaChaValue.getTag());
+                };
+            }
+        },
+        LEGACY {
+            @Override
+            GroupDecrypter decrypter(KeyWithType kwt) {
+                // legacy values are interpreted based on the type of the key, so there is nothing to validate up front
+                return value -> value.decrypt(kwt);
+            }
+        };
+
+        abstract GroupDecrypter decrypter(KeyWithType kwt);
+    }
+
+    private interface GroupDecrypter {
+        String decrypt(EncryptedValue value);
+    }
+
+    private enum GroupVisitor implements EncryptedValueVisitor<Group> {
+        INSTANCE;
+
+        @Override
+        public Group visit(LegacyEncryptedValue legacyEncryptedValue) {
+            return Group.LEGACY;
+        }
+
+        @Override
+        public Group visit(AesEncryptedValue aesEncryptedValue) {
+            return Group.AES;
+        }
+
+        @Override
+        public Group visit(RsaEncryptedValue rsaEncryptedValue) {
+            return Group.RSA;
+        }
+
+        @Override
+        public Group visit(RsaEnvelopeEncryptedValue rsaEnvelopeEncryptedValue) {
+            return Group.RSA_ENVELOPE;
+        }
+
+        @Override
+        public Group visit(EciesEncryptedValue eciesEncryptedValue) {
+            return Group.EC;
+        }
+
+        @Override
+        public Group visit(ChaCha20Poly1305EncryptedValue chaCha20Poly1305EncryptedValue) {
+            return Group.CHACHA20_POLY1305;
+        }
+    }
+}
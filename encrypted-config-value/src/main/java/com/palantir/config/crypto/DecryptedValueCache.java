@@ -0,0 +1,144 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory cache of decrypted values, for configurations that decrypt the same value many times (for example on
+ * every reload). Entries are keyed by a SHA-256 digest of the serialized encrypted value and a fingerprint of the
+ * decryption key, so neither the ciphertext nor the key is retained by the cache.
+ *
+ * The cache is bounded by the approximate number of bytes taken up by its entries and evicts the least recently used
+ * entries first; entries also expire a fixed time after they were added. Concurrent lookups of a value that is not yet
+ * cached wait for a single decryption rather than each decrypting the value. Failed decryptions are not cached.
+ *
+ * Note that cached plaintexts stay on the heap until they are evicted or expire.
+ */
+public final class DecryptedValueCache {
+    private static final HashFunction DIGEST = Hashing.sha256();
+    // approximate size of an entry excluding the characters of the plaintext: the digest, the String and cache node
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Cache<HashCode, String> plaintexts;
+    // fingerprints are cached by key identity, since the key utilities return the same instance while keys don't change
+    private final LoadingCache<KeyWithType, HashCode> keyFingerprints = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(DecryptedValueCache::fingerprint));
+
+    private DecryptedValueCache(long maximumBytes, Duration expireAfterWrite) {
+        this.plaintexts = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<HashCode, String>weigher((digest, plaintext) ->
+                        ENTRY_OVERHEAD_BYTES + plaintext.length() * Character.BYTES)
+                .expireAfterWrite(expireAfterWrite.toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a cache whose entries take up at most approximately {@code maximumBytes} bytes and that expire
+     * {@code expireAfterWrite} after they were added.
+     */
+    public static DecryptedValueCache create(long maximumBytes, Duration expireAfterWrite) {
+        checkArgument(maximumBytes >= 0, "maximumBytes must not be negative");
+        checkArgument(!expireAfterWrite.isNegative(), "expireAfterWrite must not be negative");
+        return new DecryptedValueCache(maximumBytes, expireAfterWrite);
+    }
+
+    /**
+     * Returns the plaintext of the provided serialized encrypted value ("enc:..."), decrypting it with the provided key
+     * only if it is not cached.
+     */
+    public String decrypt(String encryptedValue, KeyWithType kwt) {
+        return get(encryptedValue, kwt,
+                () -> DecryptionListeners.decrypt(EncryptedValue.fromString(encryptedValue), kwt));
+    }
+
+    /**
+     * Returns the plaintext of the provided encrypted value, decrypting it with the provided key only if it is not
+     * cached. Computing the cache key serializes the value, so prefer {@link #decrypt(String, KeyWithType)} when the
+     * serialized form is at hand.
+     */
+    public String decrypt(EncryptedValue encryptedValue, KeyWithType kwt) {
+        return get(encryptedValue.toString(), kwt, () -> DecryptionListeners.decrypt(encryptedValue, kwt));
+    }
+
+    /**
+     * Returns the hit, miss, load and eviction statistics of this cache.
+     */
+    public CacheStats stats() {
+        return plaintexts.stats();
+    }
+
+    /**
+     * Discards all cached plaintexts.
+     */
+    public void invalidateAll() {
+        plaintexts.invalidateAll();
+    }
+
+    private String get(String encryptedValue, KeyWithType kwt, Callable<String> decryption) {
+        HashCode digest = DIGEST.newHasher()
+                .putBytes(keyFingerprints.getUnchecked(kwt).asBytes())
+                .putString(encryptedValue, StandardCharsets.UTF_8)
+                .hash();
+        try {
+            if (!DecryptionListeners.isActive()) {
+                return plaintexts.get(digest, decryption);
+            }
+            boolean[] missed = {false};
+            String plaintext = plaintexts.get(digest, () -> {
+                missed[0] = true;
+                return decryption.call();
+            });
+            if (missed[0]) {
+                DecryptionListeners.fire(listener -> listener.cacheMissed(kwt.getType()));
+            } else {
+                DecryptionListeners.fire(listener -> listener.cacheHit(kwt.getType()));
+            }
+            return plaintext;
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            // decryption only throws unchecked exceptions
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static HashCode fingerprint(KeyWithType kwt) {
+        return DIGEST.hashString(kwt.toString(), StandardCharsets.UTF_8);
+    }
+}
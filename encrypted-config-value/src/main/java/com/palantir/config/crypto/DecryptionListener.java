@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.util.Optional;
+
+/**
+ * Receives measurements of loading keys, parsing encrypted values and decrypting them, for example to publish them as
+ * metrics. Listeners are registered with {@link DecryptionListeners#register(DecryptionListener)}.
+ *
+ * Keys are reported whenever they are parsed by {@link KeyWithType#fromString(String)}, which includes reading them
+ * from key files and environment variables, and values whenever they are parsed by
+ * {@link EncryptedValue#fromString(String)}. Decryptions are reported when they are done by {@link KeyFileUtils},
+ * {@link KeyEnvVarUtils}, a {@link DecryptedValueCache} or {@link EncryptedValue#decryptAll}, which covers the
+ * decryption of config values; calls of {@link EncryptedValue#decrypt(KeyWithType)} by other code are not reported.
+ *
+ * Methods are called on the thread that did the work and should return quickly. Exceptions thrown by listeners are
+ * ignored. Durations are in nanoseconds.
+ */
+public interface DecryptionListener {
+
+    default void keyLoaded(KeyType keyType, long nanos) {}
+
+    default void keyLoadFailed(RuntimeException exception) {}
+
+    /**
+     * Called when a value was parsed. The algorithm is empty for legacy values, whose algorithm depends on the key
+     * they are decrypted with.
+     */
+    default void valueParsed(Optional<Algorithm> algorithm, long nanos) {}
+
+    default void valueParseFailed(RuntimeException exception) {}
+
+    /**
+     * Called when a value was decrypted. The algorithm of legacy values is the algorithm of the key.
+     */
+    default void valueDecrypted(Algorithm algorithm, KeyType keyType, long nanos) {}
+
+    default void valueDecryptionFailed(Algorithm algorithm, KeyType keyType, RuntimeException exception) {}
+
+    default void cacheHit(KeyType keyType) {}
+
+    default void cacheMissed(KeyType keyType) {}
+}
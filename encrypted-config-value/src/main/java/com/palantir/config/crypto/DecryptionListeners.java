@@ -0,0 +1,173 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The {@link DecryptionListener}s that are notified of key loads, value parses and decryptions. No measurements are
+ * taken while no listener is registered.
+ */
+public final class DecryptionListeners {
+    private static final CopyOnWriteArrayList<DecryptionListener> listeners = new CopyOnWriteArrayList<>();
+
+    private DecryptionListeners() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Registers the provided listener, unless an equal listener is already registered.
+     */
+    public static void register(DecryptionListener listener) {
+        listeners.addIfAbsent(checkNotNull(listener, "listener"));
+    }
+
+    public static void unregister(DecryptionListener listener) {
+        listeners.remove(listener);
+    }
+
+    static boolean isActive() {
+        return !listeners.isEmpty();
+    }
+
+    static void fire(Consumer<DecryptionListener> event) {
+        for (DecryptionListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                // a failing listener must not fail the operation it was told about
+            }
+        }
+    }
+
+    static KeyWithType loadKey(Supplier<KeyWithType> load) {
+        if (!isActive()) {
+            return load.get();
+        }
+        long start = System.nanoTime();
+        KeyWithType kwt;
+        try {
+            kwt = load.get();
+        } catch (RuntimeException e) {
+            fire(listener -> listener.keyLoadFailed(e));
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        fire(listener -> listener.keyLoaded(kwt.getType(), nanos));
+        return kwt;
+    }
+
+    static EncryptedValue parseValue(Supplier<EncryptedValue> parse) {
+        if (!isActive()) {
+            return parse.get();
+        }
+        long start = System.nanoTime();
+        EncryptedValue value;
+        try {
+            value = parse.get();
+        } catch (RuntimeException e) {
+            fire(listener -> listener.valueParseFailed(e));
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        fire(listener -> listener.valueParsed(value.accept(AlgorithmVisitor.INSTANCE), nanos));
+        return value;
+    }
+
+    static String decrypt(EncryptedValue value, KeyWithType kwt) {
+        return decrypt(value, kwt, () -> value.decrypt(kwt));
+    }
+
+    /**
+     * Returns the result of the provided decryption of the provided value with the provided key, reporting how long it
+     * took or how it failed.
+     */
+    static String decrypt(EncryptedValue value, KeyWithType kwt, Supplier<String> decryption) {
+        if (!isActive()) {
+            return decryption.get();
+        }
+        Algorithm algorithm = algorithm(value, kwt);
+        long start = System.nanoTime();
+        String plaintext;
+        try {
+            plaintext = decryption.get();
+        } catch (RuntimeException e) {
+            fire(listener -> listener.valueDecryptionFailed(algorithm, kwt.getType(), e));
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        fire(listener -> listener.valueDecrypted(algorithm, kwt.getType(), nanos));
+        return plaintext;
+    }
+
+    static void decryptionFailed(EncryptedValue value, KeyWithType kwt, RuntimeException exception) {
+        if (isActive()) {
+            Algorithm algorithm = algorithm(value, kwt);
+            fire(listener -> listener.valueDecryptionFailed(algorithm, kwt.getType(), exception));
+        }
+    }
+
+    // legacy values are decrypted with the algorithm of the key
+    private static Algorithm algorithm(EncryptedValue value, KeyWithType kwt) {
+        return value.accept(AlgorithmVisitor.INSTANCE).orElseGet(() -> kwt.getType().getAlgorithm());
+    }
+
+    private enum AlgorithmVisitor implements EncryptedValueVisitor<Optional<Algorithm>> {
+        INSTANCE;
+
+        @Override
+        public Optional<Algorithm> visit(LegacyEncryptedValue legacyEncryptedValue) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Algorithm> visit(AesEncryptedValue aesEncryptedValue) {
+            return Optional.of(aesEncryptedValue.getType());
+        }
+
+        @Override
+        public Optional<Algorithm> visit(RsaEncryptedValue rsaEncryptedValue) {
+            return Optional.of(rsaEncryptedValue.getType());
+        }
+
+        @Override
+        public Optional<Algorithm> visit(RsaEnvelopeEncryptedValue rsaEnvelopeEncryptedValue) {
+            return Optional.of(rsaEnvelopeEncryptedValue.getType());
+        }
+
+        @Override
+        public Optional<Algorithm> visit(EciesEncryptedValue eciesEncryptedValue) {
+            return Optional.of(eciesEncryptedValue.getType());
+        }
+
+        @Override
+        public Optional<Algorithm> visit(ChaCha20Poly1305EncryptedValue chaCha20Poly1305EncryptedValue) {
+            return Optional.of(chaCha20Poly1305EncryptedValue.getType());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * The outcome of decrypting a single value as part of {@link EncryptedValue#decryptAll}: either the plaintext, or the
+ * exception that prevented the value from being decrypted.
+ */
+@Value.Immutable
+public abstract class DecryptionResult {
+    @Value.Redacted
+    public abstract Optional<String> getPlaintext();
+
+    public abstract Optional<RuntimeException> getError();
+
+    public final boolean isSuccess() {
+        return getPlaintext().isPresent();
+    }
+
+    /**
+     * Returns the plaintext, or throws the exception that prevented the value from being decrypted.
+     */
+    public final String getOrThrow() {
+        if (getError().isPresent()) {
+            throw getError().get();
+        }
+        return getPlaintext().get();
+    }
+
+    public static DecryptionResult success(String plaintext) {
+        return ImmutableDecryptionResult.builder().plaintext(plaintext).build();
+    }
+
+    public static DecryptionResult failure(RuntimeException error) {
+        return ImmutableDecryptionResult.builder().error(error).build();
+    }
+
+    @Value.Check
+    protected final void check() {
+        checkArgument(getPlaintext().isPresent() != getError().isPresent(),
+                "exactly one of plaintext and error must be present");
+    }
+}
@@ -20,17 +20,20 @@ package com.palantir.config.crypto;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.BaseEncoding;
 import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
 import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
-import java.io.IOException;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * A value that has been encrypted using an algorithm with specific parameters. The value can be decrypted when provided
  * with a key that has a type that is capable of performing decryption for the algorithm used to encrypt this value.
- * The serializable String form is "enc:base64-encoded-value".
+ * The serializable String form is "enc:base64-encoded-value", or "enc2:base64-encoded-value" for the binary format.
  *
  * An {@link EncryptedValue} has a legacy format and a current format.
  *
@@ -41,15 +44,37 @@ import java.io.IOException;
  * In the current format, the base64-encoded-value is the base64-encoded JSON representation of the concrete
  * {@link EncryptedValue} subclass of the value. The subclass contains information about the algorithm used to encrypt
  * the value, along with any relevant parameters for the algorithm.
+ *
+ * In the binary format, the base64-encoded-value is the base64-encoded compact binary representation of the concrete
+ * {@link EncryptedValue} subclass, which holds the same information as the JSON representation in about half the
+ * space. Values are written in the current format by {@link #toString()}, and in either format by {@link
+ * #toString(StringFormat)}.
  */
 @JsonSubTypes({
         @JsonSubTypes.Type(value = AesEncryptedValue.class, name = "AES"),
-        @JsonSubTypes.Type(value = RsaEncryptedValue.class, name = "RSA")
+        @JsonSubTypes.Type(value = RsaEncryptedValue.class, name = "RSA"),
+        @JsonSubTypes.Type(value = RsaEnvelopeEncryptedValue.class, name = "RSA-ENVELOPE"),
+        @JsonSubTypes.Type(value = EciesEncryptedValue.class, name = "EC"),
+        @JsonSubTypes.Type(value = ChaCha20Poly1305EncryptedValue.class, name = "CHACHA20-POLY1305")
         })
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type")
 public abstract class EncryptedValue {
-    private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String PREFIX = "enc:";
+    private static final String BINARY_PREFIX = "enc2:";
+
+    /**
+     * The string forms in which values other than legacy values can be written.
+     */
+    public enum StringFormat {
+        /**
+         * "enc:" followed by the base64-encoded JSON representation of the value.
+         */
+        JSON,
+        /**
+         * "enc2:" followed by the base64-encoded binary representation of the value.
+         */
+        BINARY
+    }
 
     @JsonIgnore
     public abstract <T> T accept(EncryptedValueVisitor<T> visitor);
@@ -57,55 +82,97 @@ public abstract class EncryptedValue {
     @JsonIgnore
     public abstract String decrypt(KeyWithType kwa);
 
+    /**
+     * Decrypts each of the provided values using the provided key and returns one {@link DecryptionResult} per value,
+     * in the iteration order of the provided collection. Values are grouped by their concrete type, and the key is
+     * validated once per group. A value that cannot be decrypted produces a failed result rather than an exception, so
+     * one bad value does not prevent the others from being decrypted.
+     */
+    public static List<DecryptionResult> decryptAll(KeyWithType kwa, Collection<? extends EncryptedValue> values) {
+        return BatchDecryption.decryptAll(kwa, values);
+    }
+
     public static boolean isEncryptedValue(String value) {
-        return value.startsWith(PREFIX);
+        return value.startsWith(PREFIX) || value.startsWith(BINARY_PREFIX);
     }
 
     public static EncryptedValue fromString(String value) {
+        return JfrEvents.valueParse(value, EncryptedValue::parseReported);
+    }
+
+    private static EncryptedValue parseReported(String value) {
+        return DecryptionListeners.parseValue(() -> parse(value));
+    }
+
+    private static EncryptedValue parse(String value) {
+        if (value.startsWith(BINARY_PREFIX)) {
+            byte[] bytes = BaseEncoding.base64().decode(value.substring(BINARY_PREFIX.length()));
+            return EncryptedValueBinaryCodec.decode(bytes);
+        }
         if (!value.startsWith(PREFIX)) {
-            throw new IllegalArgumentException("Missing \"enc:\" prefix: " + value);
+            throw new IllegalArgumentException("Missing \"enc:\" or \"enc2:\" prefix: " + value);
         }
 
         String suffix = value.substring(PREFIX.length());
 
         byte[] bytes = BaseEncoding.base64().decode(suffix);
-
-        // this is a bit dubious, but hopefully we can remove the legacy stuff soon-ish
-        try {
-            return MAPPER.readValue(bytes, EncryptedValue.class);
-        } catch (IOException e) {
-            // TODO(nmiyake): add logging in this case?
-            // if reading as JSON fails, assume that it is a legacy value
-            return ImmutableLegacyEncryptedValue.of(bytes);
-        }
+        return EncryptedValueFormat.of(bytes).decode(bytes);
     }
 
     @Override
     public final String toString() {
-        byte[] bytes = accept(new EncryptedValueVisitor<byte[]>() {
+        return toString(StringFormat.JSON);
+    }
+
+    /**
+     * Returns the string form of this value in the provided format. Legacy values have no other format and are always
+     * returned in their legacy form.
+     */
+    public final String toString(StringFormat format) {
+        return accept(new EncryptedValueVisitor<String>() {
+            @Override
+            public String visit(LegacyEncryptedValue legacyEncryptedValue) {
+                return withPrefix(PREFIX, legacyEncryptedValue.getCiphertext());
+            }
+
+            @Override
+            public String visit(AesEncryptedValue aesEncryptedValue) {
+                return format == StringFormat.BINARY
+                        ? withPrefix(BINARY_PREFIX, EncryptedValueBinaryCodec.encode(aesEncryptedValue))
+                        : withPrefix(PREFIX, EncryptedValueJsonCodec.encode(aesEncryptedValue));
+            }
+
+            @Override
+            public String visit(RsaEncryptedValue rsaEncryptedValue) {
+                return format == StringFormat.BINARY
+                        ? withPrefix(BINARY_PREFIX, EncryptedValueBinaryCodec.encode(rsaEncryptedValue))
+                        : withPrefix(PREFIX, EncryptedValueJsonCodec.encode(rsaEncryptedValue));
+            }
+
             @Override
-            public byte[] visit(LegacyEncryptedValue legacyEncryptedValue) {
-                return legacyEncryptedValue.getCiphertext();
+            public String visit(RsaEnvelopeEncryptedValue rsaEnvelopeEncryptedValue) {
+                return format == StringFormat.BINARY
+                        ? withPrefix(BINARY_PREFIX, EncryptedValueBinaryCodec.encode(rsaEnvelopeEncryptedValue))
+                        : withPrefix(PREFIX, EncryptedValueJsonCodec.encode(rsaEnvelopeEncryptedValue));
             }
 
             @Override
-            public byte[] visit(AesEncryptedValue aesEncryptedValue) {
-                return getJsonBytes(aesEncryptedValue);
+            public String visit(EciesEncryptedValue eciesEncryptedValue) {
+                return format == StringFormat.BINARY
+                        ? withPrefix(BINARY_PREFIX, EncryptedValueBinaryCodec.encode(eciesEncryptedValue))
+                        : withPrefix(PREFIX, EncryptedValueJsonCodec.encode(eciesEncryptedValue));
             }
 
             @Override
-            public byte[] visit(RsaEncryptedValue rsaEncryptedValue) {
-                return getJsonBytes(rsaEncryptedValue);
+            public String visit(ChaCha20Poly1305EncryptedValue chaCha20Poly1305EncryptedValue) {
+                return format == StringFormat.BINARY
+                        ? withPrefix(BINARY_PREFIX, EncryptedValueBinaryCodec.encode(chaCha20Poly1305EncryptedValue))
+                        : withPrefix(PREFIX, EncryptedValueJsonCodec.encode(chaCha20Poly1305EncryptedValue));
             }
         });
-        return PREFIX + BaseEncoding.base64().encode(bytes);
     }
 
-    private static byte[] getJsonBytes(Object value) {
-        try {
-            return MAPPER.writeValueAsBytes(value);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+    private static String withPrefix(String prefix, byte[] bytes) {
+        return prefix + BaseEncoding.base64().encode(bytes);
     }
 }
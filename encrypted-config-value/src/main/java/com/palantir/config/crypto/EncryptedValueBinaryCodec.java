@@ -0,0 +1,294 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.ImmutableAesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ImmutableChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.ImmutableEciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
+import java.util.Arrays;
+
+/**
+ * Reads and writes the binary representation of the {@link EncryptedValue}s other than {@link LegacyEncryptedValue}s
+ * that is used by the "enc2:" string form. The layout is:
+ *
+ * <pre>
+ * version (1 byte, currently 1)
+ * algorithm and mode (1 byte: 1 for AES/GCM, 2 for RSA/OAEP, 3 for RSA-ENVELOPE/OAEP_GCM, 4 for EC/ECIES,
+ *     5 for CHACHA20-POLY1305)
+ * key id (length-prefixed; currently always empty and ignored when read)
+ * for AES/GCM: iv, ciphertext and tag (each length-prefixed)
+ * for RSA/OAEP: OAEP hash algorithm and MGF1 hash algorithm (1 byte each: 1 for SHA-1, 2 for SHA-256), then the
+ *     ciphertext (length-prefixed)
+ * for RSA-ENVELOPE/OAEP_GCM: OAEP hash algorithm and MGF1 hash algorithm as for RSA/OAEP, then the wrapped key, iv,
+ *     ciphertext and tag (each length-prefixed)
+ * for EC/ECIES: ephemeral key, ciphertext and tag (each length-prefixed)
+ * for CHACHA20-POLY1305: nonce, ciphertext and tag (each length-prefixed)
+ * </pre>
+ *
+ * Lengths are unsigned LEB128 varints, so the lengths of IVs and tags take a single byte.
+ */
+final class EncryptedValueBinaryCodec {
+    private static final byte VERSION = 1;
+    private static final byte AES_GCM = 1;
+    private static final byte RSA_OAEP = 2;
+    private static final byte RSA_ENVELOPE_OAEP_GCM = 3;
+    private static final byte EC_ECIES = 4;
+    private static final byte CHACHA20_POLY1305 = 5;
+    private static final byte SHA1 = 1;
+    private static final byte SHA256 = 2;
+
+    private static final byte[] NO_KEY_ID = new byte[0];
+
+    private EncryptedValueBinaryCodec() {
+        /* do not instantiate */
+    }
+
+    static byte[] encode(AesEncryptedValue value) {
+        byte[] iv = value.getIv();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        Writer writer = new Writer(2 + fieldLength(NO_KEY_ID) + fieldLength(iv) + fieldLength(ciphertext)
+                + fieldLength(tag));
+        writer.writeByte(VERSION);
+        writer.writeByte(AES_GCM);
+        writer.writeField(NO_KEY_ID);
+        writer.writeField(iv);
+        writer.writeField(ciphertext);
+        writer.writeField(tag);
+        return writer.bytes;
+    }
+
+    static byte[] encode(RsaEncryptedValue value) {
+        byte[] ciphertext = value.getCiphertext();
+        Writer writer = new Writer(4 + fieldLength(NO_KEY_ID) + fieldLength(ciphertext));
+        writer.writeByte(VERSION);
+        writer.writeByte(RSA_OAEP);
+        writer.writeField(NO_KEY_ID);
+        writer.writeByte(hashAlgorithmCode(value.getOaepHashAlg()));
+        writer.writeByte(hashAlgorithmCode(value.getMdf1HashAlg()));
+        writer.writeField(ciphertext);
+        return writer.bytes;
+    }
+
+    static byte[] encode(RsaEnvelopeEncryptedValue value) {
+        byte[] wrappedKey = value.getWrappedKey();
+        byte[] iv = value.getIv();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        Writer writer = new Writer(4 + fieldLength(NO_KEY_ID) + fieldLength(wrappedKey) + fieldLength(iv)
+                + fieldLength(ciphertext) + fieldLength(tag));
+        writer.writeByte(VERSION);
+        writer.writeByte(RSA_ENVELOPE_OAEP_GCM);
+        writer.writeField(NO_KEY_ID);
+        writer.writeByte(hashAlgorithmCode(value.getOaepHashAlg()));
+        writer.writeByte(hashAlgorithmCode(value.getMdf1HashAlg()));
+        writer.writeField(wrappedKey);
+        writer.writeField(iv);
+        writer.writeField(ciphertext);
+        writer.writeField(tag);
+        return writer.bytes;
+    }
+
+    static byte[] encode(EciesEncryptedValue value) {
+        byte[] ephemeralKey = value.getEphemeralKey();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        Writer writer = new Writer(2 + fieldLength(NO_KEY_ID) + fieldLength(ephemeralKey) + fieldLength(ciphertext)
+                + fieldLength(tag));
+        writer.writeByte(VERSION);
+        writer.writeByte(EC_ECIES);
+        writer.writeField(NO_KEY_ID);
+        writer.writeField(ephemeralKey);
+        writer.writeField(ciphertext);
+        writer.writeField(tag);
+        return writer.bytes;
+    }
+
+    static byte[] encode(ChaCha20Poly1305EncryptedValue value) {
+        byte[] nonce = value.getNonce();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        Writer writer = new Writer(2 + fieldLength(NO_KEY_ID) + fieldLength(nonce) + fieldLength(ciphertext)
+                + fieldLength(tag));
+        writer.writeByte(VERSION);
+        writer.writeByte(CHACHA20_POLY1305);
+        writer.writeField(NO_KEY_ID);
+        writer.writeField(nonce);
+        writer.writeField(ciphertext);
+        writer.writeField(tag);
+        return writer.bytes;
+    }
+
+    /**
+     * Returns the value represented by the provided bytes. Throws {@link IllegalArgumentException} if the bytes are not
+     * a value in a supported version of the layout.
+     */
+    static EncryptedValue decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported enc2 version: " + version);
+        }
+        byte algorithm = reader.readByte();
+        reader.readField(); // the key id
+        EncryptedValue value;
+        if (algorithm == AES_GCM) {
+            value = ImmutableAesEncryptedValue.builder()
+                    .iv(reader.readField())
+                    .ciphertext(reader.readField())
+                    .tag(reader.readField())
+                    .build();
+        } else if (algorithm == RSA_OAEP) {
+            value = ImmutableRsaEncryptedValue.builder()
+                    .oaepHashAlg(hashAlgorithm(reader.readByte()))
+                    .mdf1HashAlg(hashAlgorithm(reader.readByte()))
+                    .ciphertext(reader.readField())
+                    .build();
+        } else if (algorithm == RSA_ENVELOPE_OAEP_GCM) {
+            value = ImmutableRsaEnvelopeEncryptedValue.builder()
+                    .oaepHashAlg(hashAlgorithm(reader.readByte()))
+                    .mdf1HashAlg(hashAlgorithm(reader.readByte()))
+                    .wrappedKey(reader.readField())
+                    .iv(reader.readField())
+                    .ciphertext(reader.readField())
+                    .tag(reader.readField())
+                    .build();
+        } else if (algorithm == EC_ECIES) {
+            value = ImmutableEciesEncryptedValue.builder()
+                    .ephemeralKey(reader.readField())
+                    .ciphertext(reader.readField())
+                    .tag(reader.readField())
+                    .build();
+        } else if (algorithm == CHACHA20_POLY1305) {
+            value = ImmutableChaCha20Poly1305EncryptedValue.builder()
+                    .nonce(reader.readField())
+                    .ciphertext(reader.readField())
+                    .tag(reader.readField())
+                    .build();
+        } else {
+            throw new IllegalArgumentException("Unsupported enc2 algorithm: " + algorithm);
+        }
+        reader.checkAtEnd();
+        return value;
+    }
+
+    private static byte hashAlgorithmCode(RsaOaepEncrypter.HashAlgorithm hashAlgorithm) {
+        switch (hashAlgorithm) {
+            case SHA1:
+                return SHA1;
+            case SHA256:
+                return SHA256;
+            default:
+                throw new IllegalArgumentException("Unsupported hash algorithm: " + hashAlgorithm);
+        }
+    }
+
+    private static RsaOaepEncrypter.HashAlgorithm hashAlgorithm(byte code) {
+        switch (code) {
+            case SHA1:
+                return RsaOaepEncrypter.HashAlgorithm.SHA1;
+            case SHA256:
+                return RsaOaepEncrypter.HashAlgorithm.SHA256;
+            default:
+                throw new IllegalArgumentException("Unsupported enc2 hash algorithm: " + code);
+        }
+    }
+
+    private static int fieldLength(byte[] field) {
+        int length = field.length;
+        int prefixLength = 1;
+        while (length >= 0x80) {
+            length >>>= 7;
+            prefixLength++;
+        }
+        return prefixLength + field.length;
+    }
+
+    private static final class Writer {
+        private final byte[] bytes;
+        private int position;
+
+        Writer(int length) {
+            this.bytes = new byte[length];
+        }
+
+        void writeByte(byte value) {
+            bytes[position++] = value;
+        }
+
+        void writeField(byte[] field) {
+            int length = field.length;
+            while (length >= 0x80) {
+                bytes[position++] = (byte) (length | 0x80);
+                length >>>= 7;
+            }
+            bytes[position++] = (byte) length;
+            System.arraycopy(field, 0, bytes, position, field.length);
+            position += field.length;
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated enc2 value");
+            }
+            return bytes[position++];
+        }
+
+        byte[] readField() {
+            int length = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (shift > 28) {
+                    throw new IllegalArgumentException("Invalid field length in enc2 value");
+                }
+                current = readByte();
+                length |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated enc2 value");
+            }
+            byte[] field = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return field;
+        }
+
+        void checkAtEnd() {
+            if (position != bytes.length) {
+                throw new IllegalArgumentException("Unexpected trailing bytes in enc2 value");
+            }
+        }
+    }
+}
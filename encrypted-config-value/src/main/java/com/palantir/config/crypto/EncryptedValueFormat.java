@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The formats of the base64-decoded bytes of an {@link EncryptedValue}. The format of a value is determined by its
+ * first byte, so that a value is parsed only by the codec of its format. To add a format, add a constant with the
+ * leading bytes that identify it; bytes that are not claimed by any format identify {@link #LEGACY} values.
+ */
+enum EncryptedValueFormat {
+    /**
+     * Raw ciphertext bytes, which do not identify the algorithm used to encrypt them.
+     */
+    LEGACY {
+        @Override
+        EncryptedValue decode(byte[] bytes) {
+            return ImmutableLegacyEncryptedValue.of(bytes);
+        }
+    },
+
+    /**
+     * The JSON representation of a concrete {@link EncryptedValue}. Leading JSON whitespace is accepted since it was
+     * accepted when every value was first parsed as JSON.
+     */
+    JSON('{', ' ', '\t', '\n', '\r') {
+        @Override
+        EncryptedValue decode(byte[] bytes) {
+            Optional<EncryptedValue> value = EncryptedValueJsonCodec.decode(bytes);
+            if (value.isPresent()) {
+                return value.get();
+            }
+            try {
+                return JacksonReader.INSTANCE.readValue(bytes);
+            } catch (IOException e) {
+                // legacy ciphertext starts with an arbitrary byte, which can also start a JSON value
+                return LEGACY.decode(bytes);
+            }
+        }
+    };
+
+    private static final EncryptedValueFormat[] FORMATS_BY_FIRST_BYTE = formatsByFirstByte();
+
+    private final char[] leadingBytes;
+
+    EncryptedValueFormat(char... leadingBytes) {
+        this.leadingBytes = leadingBytes;
+    }
+
+    abstract EncryptedValue decode(byte[] bytes);
+
+    static EncryptedValueFormat of(byte[] bytes) {
+        if (bytes.length == 0) {
+            return LEGACY;
+        }
+        return FORMATS_BY_FIRST_BYTE[bytes[0] & 0xFF];
+    }
+
+    private static EncryptedValueFormat[] formatsByFirstByte() {
+        EncryptedValueFormat[] formats = new EncryptedValueFormat[256];
+        Arrays.fill(formats, LEGACY);
+        for (EncryptedValueFormat format : values()) {
+            for (char leadingByte : format.leadingBytes) {
+                formats[leadingByte] = format;
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Reads the JSON that {@link EncryptedValueJsonCodec} does not, and is only loaded when such JSON is first read.
+     */
+    private static final class JacksonReader {
+        private static final ObjectReader INSTANCE = new ObjectMapper().readerFor(EncryptedValue.class);
+    }
+}
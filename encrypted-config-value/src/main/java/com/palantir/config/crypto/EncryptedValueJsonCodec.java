@@ -0,0 +1,584 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.ImmutableAesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ImmutableChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.ImmutableEciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Reads and writes the JSON representation of the {@link EncryptedValue}s other than {@link LegacyEncryptedValue}s
+ * without an {@code ObjectMapper}. The written JSON is identical to the JSON written by Jackson, whose field order
+ * is fixed by the {@code JsonPropertyOrder} of each value.
+ *
+ * Only the JSON written by this library and equivalent JSON are read: a single object with the fields of one of the
+ * values, in any order and with any whitespace, whose strings contain no escapes and whose binary fields are padded
+ * base64. Any other input is left to the caller, which parses it with Jackson so that the accepted inputs do not
+ * change.
+ */
+final class EncryptedValueJsonCodec {
+    private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_VALUES = base64Values();
+
+    private EncryptedValueJsonCodec() {
+        /* do not instantiate */
+    }
+
+    // fields are written in the JsonPropertyOrder of the values
+    static byte[] encode(AesEncryptedValue value) {
+        byte[] iv = value.getIv();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        return new JsonWriter(base64Length(iv) + base64Length(ciphertext) + base64Length(tag) + 128)
+                .field(Field.MODE, value.getMode().name())
+                .field(Field.IV, iv)
+                .field(Field.CIPHERTEXT, ciphertext)
+                .field(Field.TAG, tag)
+                .field(Field.TYPE, value.getType().toString())
+                .toBytes();
+    }
+
+    static byte[] encode(RsaEncryptedValue value) {
+        byte[] ciphertext = value.getCiphertext();
+        return new JsonWriter(base64Length(ciphertext) + 128)
+                .field(Field.MODE, value.getMode().name())
+                .field(Field.CIPHERTEXT, ciphertext)
+                .field(Field.TYPE, value.getType().toString())
+                .field(Field.MDF1_HASH_ALG, value.getMdf1HashAlg().toString())
+                .field(Field.OAEP_HASH_ALG, value.getOaepHashAlg().toString())
+                .toBytes();
+    }
+
+    static byte[] encode(RsaEnvelopeEncryptedValue value) {
+        byte[] iv = value.getIv();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        byte[] wrappedKey = value.getWrappedKey();
+        return new JsonWriter(base64Length(iv) + base64Length(ciphertext) + base64Length(tag)
+                + base64Length(wrappedKey) + 192)
+                .field(Field.MODE, value.getMode().name())
+                .field(Field.IV, iv)
+                .field(Field.CIPHERTEXT, ciphertext)
+                .field(Field.TAG, tag)
+                .field(Field.TYPE, value.getType().toString())
+                .field(Field.MDF1_HASH_ALG, value.getMdf1HashAlg().toString())
+                .field(Field.OAEP_HASH_ALG, value.getOaepHashAlg().toString())
+                .field(Field.WRAPPED_KEY, wrappedKey)
+                .toBytes();
+    }
+
+    static byte[] encode(EciesEncryptedValue value) {
+        byte[] ephemeralKey = value.getEphemeralKey();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        return new JsonWriter(base64Length(ephemeralKey) + base64Length(ciphertext) + base64Length(tag) + 128)
+                .field(Field.MODE, value.getMode().name())
+                .field(Field.CIPHERTEXT, ciphertext)
+                .field(Field.TAG, tag)
+                .field(Field.TYPE, value.getType().toString())
+                .field(Field.EPHEMERAL_KEY, ephemeralKey)
+                .toBytes();
+    }
+
+    static byte[] encode(ChaCha20Poly1305EncryptedValue value) {
+        byte[] nonce = value.getNonce();
+        byte[] ciphertext = value.getCiphertext();
+        byte[] tag = value.getTag();
+        return new JsonWriter(base64Length(nonce) + base64Length(ciphertext) + base64Length(tag) + 128)
+                .field(Field.NONCE, nonce)
+                .field(Field.CIPHERTEXT, ciphertext)
+                .field(Field.TAG, tag)
+                .field(Field.TYPE, value.getType().toString())
+                .toBytes();
+    }
+
+    /**
+     * Returns the value represented by the provided JSON, or {@link Optional#empty()} if the JSON is not in the form
+     * read by this codec or does not represent a valid value.
+     */
+    static Optional<EncryptedValue> decode(byte[] json) {
+        JsonReader reader = new JsonReader(json);
+        if (!reader.readFields()) {
+            return Optional.empty();
+        }
+        if (reader.hasValue(Field.TYPE, Algorithm.AES.toString())) {
+            return decodeAes(reader);
+        } else if (reader.hasValue(Field.TYPE, Algorithm.RSA.toString())) {
+            return decodeRsa(reader);
+        } else if (reader.hasValue(Field.TYPE, Algorithm.RSA_ENVELOPE.toString())) {
+            return decodeRsaEnvelope(reader);
+        } else if (reader.hasValue(Field.TYPE, Algorithm.EC.toString())) {
+            return decodeEcies(reader);
+        } else if (reader.hasValue(Field.TYPE, Algorithm.CHACHA20_POLY1305.toString())) {
+            return decodeChaCha20Poly1305(reader);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<EncryptedValue> decodeAes(JsonReader reader) {
+        if (!reader.hasOnly(Field.TYPE, Field.MODE, Field.IV, Field.CIPHERTEXT, Field.TAG)) {
+            return Optional.empty();
+        }
+        byte[] iv = reader.base64Value(Field.IV);
+        byte[] ciphertext = reader.base64Value(Field.CIPHERTEXT);
+        byte[] tag = reader.base64Value(Field.TAG);
+        if (iv == null || ciphertext == null || tag == null) {
+            return Optional.empty();
+        }
+        ImmutableAesEncryptedValue.Builder builder = ImmutableAesEncryptedValue.builder()
+                .iv(iv)
+                .ciphertext(ciphertext)
+                .tag(tag);
+        if (reader.has(Field.MODE)) {
+            Optional<AesEncryptedValue.Mode> mode = reader.enumValue(Field.MODE, AesEncryptedValue.Mode.values());
+            if (!mode.isPresent()) {
+                return Optional.empty();
+            }
+            builder.mode(mode.get());
+        }
+        return Optional.of(builder.build());
+    }
+
+    private static Optional<EncryptedValue> decodeRsa(JsonReader reader) {
+        if (!reader.hasOnly(Field.TYPE, Field.MODE, Field.CIPHERTEXT, Field.OAEP_HASH_ALG, Field.MDF1_HASH_ALG)) {
+            return Optional.empty();
+        }
+        byte[] ciphertext = reader.base64Value(Field.CIPHERTEXT);
+        Optional<RsaOaepEncrypter.HashAlgorithm> oaepHashAlg =
+                reader.enumValue(Field.OAEP_HASH_ALG, RsaOaepEncrypter.HashAlgorithm.values());
+        Optional<RsaOaepEncrypter.HashAlgorithm> mdf1HashAlg =
+                reader.enumValue(Field.MDF1_HASH_ALG, RsaOaepEncrypter.HashAlgorithm.values());
+        if (ciphertext == null || !oaepHashAlg.isPresent() || !mdf1HashAlg.isPresent()) {
+            return Optional.empty();
+        }
+        ImmutableRsaEncryptedValue.Builder builder = ImmutableRsaEncryptedValue.builder()
+                .ciphertext(ciphertext)
+                .oaepHashAlg(oaepHashAlg.get())
+                .mdf1HashAlg(mdf1HashAlg.get());
+        if (reader.has(Field.MODE)) {
+            Optional<RsaEncryptedValue.Mode> mode = reader.enumValue(Field.MODE, RsaEncryptedValue.Mode.values());
+            if (!mode.isPresent()) {
+                return Optional.empty();
+            }
+            builder.mode(mode.get());
+        }
+        return Optional.of(builder.build());
+    }
+
+    private static Optional<EncryptedValue> decodeRsaEnvelope(JsonReader reader) {
+        if (!reader.hasOnly(Field.TYPE, Field.MODE, Field.WRAPPED_KEY, Field.OAEP_HASH_ALG, Field.MDF1_HASH_ALG,
+                Field.IV, Field.CIPHERTEXT, Field.TAG)) {
+            return Optional.empty();
+        }
+        byte[] wrappedKey = reader.base64Value(Field.WRAPPED_KEY);
+        byte[] iv = reader.base64Value(Field.IV);
+        byte[] ciphertext = reader.base64Value(Field.CIPHERTEXT);
+        byte[] tag = reader.base64Value(Field.TAG);
+        Optional<RsaOaepEncrypter.HashAlgorithm> oaepHashAlg =
+                reader.enumValue(Field.OAEP_HASH_ALG, RsaOaepEncrypter.HashAlgorithm.values());
+        Optional<RsaOaepEncrypter.HashAlgorithm> mdf1HashAlg =
+                reader.enumValue(Field.MDF1_HASH_ALG, RsaOaepEncrypter.HashAlgorithm.values());
+        if (anyNull(wrappedKey, iv, ciphertext, tag) || !oaepHashAlg.isPresent() || !mdf1HashAlg.isPresent()) {
+            return Optional.empty();
+        }
+        ImmutableRsaEnvelopeEncryptedValue.Builder builder = ImmutableRsaEnvelopeEncryptedValue.builder()
+                .wrappedKey(wrappedKey)
+                .oaepHashAlg(oaepHashAlg.get())
+                .mdf1HashAlg(mdf1HashAlg.get())
+                .iv(iv)
+                .ciphertext(ciphertext)
+                .tag(tag);
+        if (reader.has(Field.MODE)) {
+            Optional<RsaEnvelopeEncryptedValue.Mode> mode =
+                    reader.enumValue(Field.MODE, RsaEnvelopeEncryptedValue.Mode.values());
+            if (!mode.isPresent()) {
+                return Optional.empty();
+            }
+            builder.mode(mode.get());
+        }
+        return Optional.of(builder.build());
+    }
+
+    private static Optional<EncryptedValue> decodeEcies(JsonReader reader) {
+        if (!reader.hasOnly(Field.TYPE, Field.MODE, Field.EPHEMERAL_KEY, Field.CIPHERTEXT, Field.TAG)) {
+            return Optional.empty();
+        }
+        byte[] ephemeralKey = reader.base64Value(Field.EPHEMERAL_KEY);
+        byte[] ciphertext = reader.base64Value(Field.CIPHERTEXT);
+        byte[] tag = reader.base64Value(Field.TAG);
+        if (anyNull(ephemeralKey, ciphertext, tag)) {
+            return Optional.empty();
+        }
+        ImmutableEciesEncryptedValue.Builder builder = ImmutableEciesEncryptedValue.builder()
+                .ephemeralKey(ephemeralKey)
+                .ciphertext(ciphertext)
+                .tag(tag);
+        if (reader.has(Field.MODE)) {
+            Optional<EciesEncryptedValue.Mode> mode = reader.enumValue(Field.MODE, EciesEncryptedValue.Mode.values());
+            if (!mode.isPresent()) {
+                return Optional.empty();
+            }
+            builder.mode(mode.get());
+        }
+        return Optional.of(builder.build());
+    }
+
+    private static Optional<EncryptedValue> decodeChaCha20Poly1305(JsonReader reader) {
+        if (!reader.hasOnly(Field.TYPE, Field.NONCE, Field.CIPHERTEXT, Field.TAG)) {
+            return Optional.empty();
+        }
+        byte[] nonce = reader.base64Value(Field.NONCE);
+        byte[] ciphertext = reader.base64Value(Field.CIPHERTEXT);
+        byte[] tag = reader.base64Value(Field.TAG);
+        if (anyNull(nonce, ciphertext, tag)) {
+            return Optional.empty();
+        }
+        return Optional.of(ImmutableChaCha20Poly1305EncryptedValue.builder()
+                .nonce(nonce)
+                .ciphertext(ciphertext)
+                .tag(tag)
+                .build());
+    }
+
+    private static boolean anyNull(byte[]... fields) {
+        for (byte[] field : fields) {
+            if (field == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int base64Length(byte[] bytes) {
+        return (bytes.length + 2) / 3 * 4;
+    }
+
+    private static byte[] base64Values() {
+        byte[] values = new byte[128];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < BASE64_ALPHABET.length; i++) {
+            values[BASE64_ALPHABET[i]] = (byte) i;
+        }
+        return values;
+    }
+
+    /**
+     * The fields of the JSON representations. Each value uses a subset of them.
+     */
+    private enum Field {
+        TYPE("type"),
+        MODE("mode"),
+        IV("iv"),
+        CIPHERTEXT("ciphertext"),
+        TAG("tag"),
+        OAEP_HASH_ALG("oaep-alg"),
+        MDF1_HASH_ALG("mdf1-alg"),
+        WRAPPED_KEY("wrapped-key"),
+        EPHEMERAL_KEY("ephemeral-key"),
+        NONCE("nonce");
+
+        private static final Field[] FIELDS = values();
+
+        private final byte[] name;
+
+        Field(String name) {
+            this.name = name.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Writes a JSON object to a buffer of a precomputed size. Names and string values are written as they are, since
+     * every name and value written by this codec consists of characters that need no escaping.
+     */
+    private static final class JsonWriter {
+        private final byte[] buffer;
+        private int position;
+
+        JsonWriter(int maximumLength) {
+            this.buffer = new byte[maximumLength];
+            this.buffer[position++] = '{';
+        }
+
+        JsonWriter field(Field field, String value) {
+            writeName(field);
+            for (int i = 0; i < value.length(); i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+            buffer[position++] = '"';
+            return this;
+        }
+
+        JsonWriter field(Field field, byte[] value) {
+            writeName(field);
+            int offset = 0;
+            for (; offset + 3 <= value.length; offset += 3) {
+                writeBase64((value[offset] & 0xFF) << 16 | (value[offset + 1] & 0xFF) << 8 | (value[offset + 2] & 0xFF),
+                        4);
+            }
+            if (value.length - offset == 1) {
+                writeBase64((value[offset] & 0xFF) << 16, 2);
+                buffer[position++] = '=';
+                buffer[position++] = '=';
+            } else if (value.length - offset == 2) {
+                writeBase64((value[offset] & 0xFF) << 16 | (value[offset + 1] & 0xFF) << 8, 3);
+                buffer[position++] = '=';
+            }
+            buffer[position++] = '"';
+            return this;
+        }
+
+        byte[] toBytes() {
+            buffer[position++] = '}';
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void writeName(Field field) {
+            if (position > 1) {
+                buffer[position++] = ',';
+            }
+            buffer[position++] = '"';
+            System.arraycopy(field.name, 0, buffer, position, field.name.length);
+            position += field.name.length;
+            buffer[position++] = '"';
+            buffer[position++] = ':';
+            buffer[position++] = '"';
+        }
+
+        // writes the first characters of the 4 base64 characters that encode the provided 24 bits
+        private void writeBase64(int bits, int characters) {
+            for (int i = 0; i < characters; i++) {
+                buffer[position++] = BASE64_ALPHABET[(bits >>> (18 - 6 * i)) & 0x3F];
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON object whose fields are all {@link Field}s with string values without escapes or control or
+     * non-ASCII characters. The values are not copied; the reader records where each value starts and ends.
+     */
+    private static final class JsonReader {
+        private final byte[] json;
+        private final int[] valueStarts = new int[Field.FIELDS.length];
+        private final int[] valueEnds = new int[Field.FIELDS.length];
+        private int position;
+
+        JsonReader(byte[] json) {
+            this.json = json;
+            Arrays.fill(valueStarts, -1);
+        }
+
+        /**
+         * Reads the fields of the object, and returns false if the input is not such an object or has a duplicate
+         * field.
+         */
+        boolean readFields() {
+            if (!consume('{')) {
+                return false;
+            }
+            if (!consume('}')) {
+                do {
+                    if (!readField()) {
+                        return false;
+                    }
+                } while (consume(','));
+                if (!consume('}')) {
+                    return false;
+                }
+            }
+            skipWhitespace();
+            return position == json.length;
+        }
+
+        boolean has(Field field) {
+            return valueStarts[field.ordinal()] >= 0;
+        }
+
+        /**
+         * Returns whether the object has no fields other than the provided fields.
+         */
+        boolean hasOnly(Field... fields) {
+            int allowed = 0;
+            for (Field field : fields) {
+                allowed += has(field) ? 1 : 0;
+            }
+            int present = 0;
+            for (Field field : Field.FIELDS) {
+                present += has(field) ? 1 : 0;
+            }
+            return allowed == present;
+        }
+
+        boolean hasValue(Field field, String value) {
+            int start = valueStarts[field.ordinal()];
+            if (start < 0 || valueEnds[field.ordinal()] - start != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (json[start + i] != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        <E extends Enum<E>> Optional<E> enumValue(Field field, E[] constants) {
+            for (E constant : constants) {
+                if (hasValue(field, constant.toString())) {
+                    return Optional.of(constant);
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Returns the decoded value of a padded base64 field, or {@code null} if the field is missing or its value is
+         * not padded base64.
+         */
+        byte[] base64Value(Field field) {
+            int start = valueStarts[field.ordinal()];
+            int end = valueEnds[field.ordinal()];
+            if (start < 0 || (end - start) % 4 != 0) {
+                return null;
+            }
+            int padding = base64Padding(start, end);
+            byte[] bytes = new byte[(end - start) / 4 * 3 - padding];
+            int written = 0;
+            for (int i = start; i < end; i += 4) {
+                int bits = readBase64(i, i + 4 == end ? 4 - padding : 4);
+                if (bits < 0) {
+                    return null;
+                }
+                for (int j = 0; j < 3 && written < bytes.length; j++) {
+                    bytes[written++] = (byte) (bits >>> (16 - 8 * j));
+                }
+            }
+            return bytes;
+        }
+
+        private int base64Padding(int start, int end) {
+            int padding = 0;
+            while (padding < 2 && end - padding > start && json[end - padding - 1] == '=') {
+                padding++;
+            }
+            return padding;
+        }
+
+        // returns the 24 bits encoded by the group of 4 characters at the provided offset, of which only the first
+        // characters are significant, or -1 if a significant character is not a base64 character
+        private int readBase64(int offset, int characters) {
+            int bits = 0;
+            for (int i = 0; i < 4; i++) {
+                int value = 0;
+                if (i < characters) {
+                    byte character = json[offset + i];
+                    value = character >= 0 ? BASE64_VALUES[character] : -1;
+                }
+                if (value < 0) {
+                    return -1;
+                }
+                bits = bits << 6 | value;
+            }
+            return bits;
+        }
+
+        private boolean readField() {
+            Field field = readName();
+            if (field == null || has(field) || !consume(':') || !consume('"')) {
+                return false;
+            }
+            valueStarts[field.ordinal()] = position;
+            if (!skipString()) {
+                return false;
+            }
+            valueEnds[field.ordinal()] = position - 1;
+            return true;
+        }
+
+        private Field readName() {
+            if (!consume('"')) {
+                return null;
+            }
+            int start = position;
+            if (!skipString()) {
+                return null;
+            }
+            int length = position - 1 - start;
+            for (Field field : Field.FIELDS) {
+                if (field.name.length == length && regionMatches(start, field.name)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        private boolean regionMatches(int start, byte[] expected) {
+            for (int i = 0; i < expected.length; i++) {
+                if (json[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // advances past the closing quote of a string whose opening quote was consumed
+        private boolean skipString() {
+            while (position < json.length) {
+                byte current = json[position++];
+                if (current == '"') {
+                    return true;
+                }
+                // escapes, control characters and non-ASCII characters (negative bytes) are left to Jackson
+                if (current == '\\' || current < 0x20) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (position < json.length && json[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length && isWhitespace(json[position])) {
+                position++;
+            }
+        }
+
+        private static boolean isWhitespace(byte value) {
+            return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+        }
+    }
+}
@@ -17,12 +17,31 @@
 package com.palantir.config.crypto;
 
 import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
 import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
 
+/**
+ * Visits the concrete types of {@link EncryptedValue}. The methods for value types added after the legacy, AES and RSA
+ * types have default implementations that reject the value, so that existing visitors continue to compile.
+ */
 public interface EncryptedValueVisitor<T> {
     T visit(LegacyEncryptedValue legacyEncryptedValue);
 
     T visit(AesEncryptedValue aesEncryptedValue);
 
     T visit(RsaEncryptedValue rsaEncryptedValue);
+
+    default T visit(RsaEnvelopeEncryptedValue rsaEnvelopeEncryptedValue) {
+        throw new IllegalArgumentException("unsupported value type");
+    }
+
+    default T visit(EciesEncryptedValue eciesEncryptedValue) {
+        throw new IllegalArgumentException("unsupported value type");
+    }
+
+    default T visit(ChaCha20Poly1305EncryptedValue chaCha20Poly1305EncryptedValue) {
+        throw new IllegalArgumentException("unsupported value type");
+    }
 }
@@ -17,31 +17,55 @@
 package com.palantir.config.crypto;
 
 import com.google.common.base.Strings;
+import com.palantir.config.crypto.jfr.JfrEvents;
 import com.palantir.config.crypto.util.SystemProxy;
+import java.util.Objects;
 
 public final class KeyEnvVarUtils {
     public static final String ENCRYPTION_KEY_NAME = "config.encryption.key";
     public static final String DECRYPTION_KEY_NAME = "config.decryption.key";
-    private static SystemProxy systemProxy = new SystemProxy();
+    private static volatile SystemProxy systemProxy = new SystemProxy();
+    private static volatile Snapshot snapshot;
 
     public static void setSystemProxy(SystemProxy systemProxy) {
         KeyEnvVarUtils.systemProxy = systemProxy;
+        snapshot = null;
     }
 
     public static String decryptUsingEnvironmentKeys(EncryptedValue encryptedValue) {
         KeyPair keyPair = retrieveKeyPairFromEnvVar();
-        return encryptedValue.decrypt(keyPair.decryptionKey());
+        return DecryptionListeners.decrypt(encryptedValue, keyPair.decryptionKey());
     }
 
+    /**
+     * Returns whether the encryption key environment variable is set, in which case values are decrypted using the
+     * environment keys rather than the default key files.
+     */
+    static boolean hasEnvironmentKeys() {
+        return !Strings.isNullOrEmpty(systemProxy.getenv(ENCRYPTION_KEY_NAME));
+    }
+
+    /**
+     * Returns the key pair stored in the environment variables. The parsed key pair is reused for as long as the
+     * {@link SystemProxy} and the values of both environment variables stay the same.
+     */
     public static KeyPair retrieveKeyPairFromEnvVar() {
-        String encryptionKey = systemProxy.getenv(ENCRYPTION_KEY_NAME);
+        SystemProxy currentSystemProxy = systemProxy;
+        String encryptionKey = currentSystemProxy.getenv(ENCRYPTION_KEY_NAME);
         if (Strings.isNullOrEmpty(encryptionKey)) {
             throw new RuntimeException("Failed to read key");
         }
-        KeyWithType encryptionKeyWithType = KeyWithType.fromString(encryptionKey);
+        String decryptionKey = currentSystemProxy.getenv(DECRYPTION_KEY_NAME);
+
+        Snapshot currentSnapshot = snapshot;
+        if (currentSnapshot != null && currentSnapshot.matches(currentSystemProxy, encryptionKey, decryptionKey)) {
+            return currentSnapshot.keyPair;
+        }
 
-        String decryptionKey = systemProxy.getenv(DECRYPTION_KEY_NAME);
-        return grabKeyWithCorrectSymmetry(encryptionKeyWithType, decryptionKey);
+        KeyPair keyPair = JfrEvents.keyLoad("environment", ENCRYPTION_KEY_NAME, () ->
+                grabKeyWithCorrectSymmetry(KeyWithType.fromString(encryptionKey), decryptionKey));
+        snapshot = new Snapshot(currentSystemProxy, encryptionKey, decryptionKey, keyPair);
+        return keyPair;
     }
 
     private static KeyPair grabKeyWithCorrectSymmetry(KeyWithType encryptionKeyWithType, String decryptionKey) {
@@ -57,4 +81,24 @@ public final class KeyEnvVarUtils {
 
     private KeyEnvVarUtils() {
     }
+
+    private static final class Snapshot {
+        private final SystemProxy systemProxy;
+        private final String encryptionKey;
+        private final String decryptionKey;
+        private final KeyPair keyPair;
+
+        Snapshot(SystemProxy systemProxy, String encryptionKey, String decryptionKey, KeyPair keyPair) {
+            this.systemProxy = systemProxy;
+            this.encryptionKey = encryptionKey;
+            this.decryptionKey = decryptionKey;
+            this.keyPair = keyPair;
+        }
+
+        boolean matches(SystemProxy otherSystemProxy, String otherEncryptionKey, String otherDecryptionKey) {
+            return systemProxy == otherSystemProxy
+                    && encryptionKey.equals(otherEncryptionKey)
+                    && Objects.equals(decryptionKey, otherDecryptionKey);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.palantir.config.crypto;
 
+import com.palantir.config.crypto.jfr.JfrEvents;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -26,15 +27,31 @@ import java.nio.file.StandardOpenOption;
 public final class KeyFileUtils {
     public static final String KEY_PATH_PROPERTY = "palantir.config.key_path";
     public static final String DEFAULT_PUBLIC_KEY_PATH = "var/conf/encrypted-config-value.key";
+    private static volatile KeyPairFileCache keyPairCache = KeyPairFileCache.validatingAttributes();
+
+    /**
+     * Replaces the cache used by {@link #decryptUsingDefaultKeys(EncryptedValue)}, for example with one created by
+     * {@link KeyPairFileCache#watching()}. The previous cache is not closed.
+     */
+    public static void setKeyPairCache(KeyPairFileCache keyPairCache) {
+        KeyFileUtils.keyPairCache = keyPairCache;
+    }
 
     public static String decryptUsingDefaultKeys(EncryptedValue encryptedValue) {
-        KeyPair keyPair;
+        return DecryptionListeners.decrypt(encryptedValue, cachedKeyPairFromDefaultPath().decryptionKey());
+    }
+
+    /**
+     * Returns the key pair stored at the default path, using the same cache as
+     * {@link #decryptUsingDefaultKeys(EncryptedValue)}. The same instance is returned while the key files are
+     * unchanged.
+     */
+    public static KeyPair cachedKeyPairFromDefaultPath() {
         try {
-            keyPair = keyPairFromDefaultPath();
+            return keyPairCache.get(defaultPath());
         } catch (IOException e) {
             throw new RuntimeException("Failed to read key", e);
         }
-        return encryptedValue.decrypt(keyPair.decryptionKey());
     }
 
     public static KeyWithType keyWithTypeFromPath(Path keyPath) throws IOException {
@@ -62,6 +79,10 @@ public final class KeyFileUtils {
     }
 
     public static KeyPair keyPairFromPath(Path path) throws IOException {
+        return JfrEvents.keyLoad("file", path.toString(), () -> readKeyPair(path));
+    }
+
+    private static KeyPair readKeyPair(Path path) throws IOException {
         KeyWithType encryptionKey = keyWithTypeFromPath(path);
 
         Path privatePath = privatePath(path);
@@ -74,13 +95,17 @@ public final class KeyFileUtils {
     }
 
     public static KeyPair keyPairFromDefaultPath() throws IOException {
-        return keyPairFromPath(Paths.get(System.getProperty(KEY_PATH_PROPERTY, DEFAULT_PUBLIC_KEY_PATH)));
+        return keyPairFromPath(defaultPath());
+    }
+
+    private static Path defaultPath() {
+        return Paths.get(System.getProperty(KEY_PATH_PROPERTY, DEFAULT_PUBLIC_KEY_PATH));
     }
 
     /**
      * Returns the sibling path of the provided path with ".private" as the extension.
      */
-    private static Path privatePath(Path path) {
+    static Path privatePath(Path path) {
         Path privatePath = path.resolveSibling(path.getFileName() + ".private");
         return privatePath;
     }
@@ -0,0 +1,215 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the {@link KeyPair}s read by {@link KeyFileUtils#keyPairFromPath(Path)} so that decrypting many values with
+ * the same key files only reads and parses the keys once. Entries are keyed by the absolute, normalized path of the
+ * (public) key file.
+ *
+ * A cache created by {@link #validatingAttributes()} checks the modification time, size and file key of the key file
+ * and its ".private" sibling on every lookup, and reloads the key pair if any of them changed. A cache created by
+ * {@link #watching()} instead registers the directory of each key file with a {@link WatchService} and reloads a key
+ * pair only after a change in that directory was observed, so lookups do not touch the file system at all.
+ */
+public final class KeyPairFileCache implements Closeable {
+
+    private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final WatchService watchService;
+    private final ConcurrentMap<Path, AtomicLong> directoryGenerations = new ConcurrentHashMap<>();
+    // generations are drawn from one counter so that a directory that is registered again after its watch key was
+    // cancelled (e.g. because the directory was deleted and re-created) never matches entries read before
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    private KeyPairFileCache(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    /**
+     * Returns a cache that validates cached key pairs against the attributes of the key files on every lookup.
+     */
+    public static KeyPairFileCache validatingAttributes() {
+        return new KeyPairFileCache(null);
+    }
+
+    /**
+     * Returns a cache that invalidates cached key pairs when a {@link WatchService} reports a change in the directory
+     * containing the key files. The returned cache owns a daemon thread that is stopped by {@link #close()}.
+     */
+    public static KeyPairFileCache watching() throws IOException {
+        KeyPairFileCache cache = new KeyPairFileCache(FileSystems.getDefault().newWatchService());
+        Thread watcher = new Thread(cache::processWatchEvents, "encrypted-config-value-key-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return cache;
+    }
+
+    /**
+     * Returns the key pair stored at the provided path, reading it from disk only if it is not cached or the cached
+     * value is no longer valid.
+     */
+    public KeyPair get(Path path) throws IOException {
+        Path resolvedPath = path.toAbsolutePath().normalize();
+        Entry entry = entries.get(resolvedPath);
+        if (watchService != null) {
+            AtomicLong generation = watchDirectory(resolvedPath.getParent());
+            if (entry != null && entry.generation == generation.get()) {
+                return entry.keyPair;
+            }
+            long currentGeneration = generation.get();
+            KeyPair keyPair = KeyFileUtils.keyPairFromPath(resolvedPath);
+            entries.put(resolvedPath, new Entry(keyPair, currentGeneration, null, null));
+            return keyPair;
+        }
+
+        FileStamp publicStamp = FileStamp.of(resolvedPath);
+        FileStamp privateStamp = FileStamp.of(KeyFileUtils.privatePath(resolvedPath));
+        if (entry != null
+                && Objects.equals(entry.publicStamp, publicStamp)
+                && Objects.equals(entry.privateStamp, privateStamp)) {
+            return entry.keyPair;
+        }
+        KeyPair keyPair = KeyFileUtils.keyPairFromPath(resolvedPath);
+        entries.put(resolvedPath, new Entry(keyPair, 0, publicStamp, privateStamp));
+        return keyPair;
+    }
+
+    /**
+     * Discards all cached key pairs.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        entries.clear();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private AtomicLong watchDirectory(Path directory) throws IOException {
+        AtomicLong generation = directoryGenerations.get(directory);
+        if (generation != null) {
+            return generation;
+        }
+        // register before the first read so that no change between the read and the registration is missed
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        AtomicLong existing = directoryGenerations.putIfAbsent(directory,
+                new AtomicLong(nextGeneration.incrementAndGet()));
+        return existing != null ? existing : directoryGenerations.get(directory);
+    }
+
+    private void processWatchEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            // any event in the directory (including an overflow) may affect a key file, and key files are commonly
+            // rotated by swapping symlinks whose names differ from the key file name, so invalidate the directory
+            key.pollEvents();
+            AtomicLong generation = directoryGenerations.get((Path) key.watchable());
+            if (generation != null) {
+                generation.set(nextGeneration.incrementAndGet());
+            }
+            if (!key.reset()) {
+                directoryGenerations.remove((Path) key.watchable());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final KeyPair keyPair;
+        private final long generation;
+        private final FileStamp publicStamp;
+        private final FileStamp privateStamp;
+
+        Entry(KeyPair keyPair, long generation, FileStamp publicStamp, FileStamp privateStamp) {
+            this.keyPair = keyPair;
+            this.generation = generation;
+            this.publicStamp = publicStamp;
+            this.privateStamp = privateStamp;
+        }
+    }
+
+    /**
+     * The attributes of a file that are compared to determine whether it changed since it was read. A {@code null}
+     * stamp represents a file that does not exist.
+     */
+    private static final class FileStamp {
+        private final FileTime lastModifiedTime;
+        private final long size;
+        private final Object fileKey;
+
+        private FileStamp(BasicFileAttributes attributes) {
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.fileKey = attributes.fileKey();
+        }
+
+        static FileStamp of(Path path) throws IOException {
+            try {
+                return new FileStamp(Files.readAttributes(path, BasicFileAttributes.class));
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp that = (FileStamp) other;
+            return size == that.size
+                    && lastModifiedTime.equals(that.lastModifiedTime)
+                    && Objects.equals(fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastModifiedTime, size, fileKey);
+        }
+    }
+}
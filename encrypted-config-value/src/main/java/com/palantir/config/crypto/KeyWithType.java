@@ -44,6 +44,10 @@ public abstract class KeyWithType {
 
     @JsonCreator
     public static KeyWithType fromString(String keyWithType) {
+        return DecryptionListeners.loadKey(() -> parse(keyWithType));
+    }
+
+    private static KeyWithType parse(String keyWithType) {
         checkArgument(keyWithType.contains(":"), "Key must be in the format <type>:<key in base64>");
 
         String[] tokens = keyWithType.split(":", 2);
@@ -17,14 +17,13 @@
 package com.palantir.config.crypto;
 
 
-import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.AesGcmDecrypter;
 import com.palantir.config.crypto.algorithm.aes.AesKey;
-import com.palantir.config.crypto.algorithm.aes.ImmutableAesEncryptedValue;
-import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEncryptedValue;
-import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepDecrypter;
 import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
 import com.palantir.config.crypto.algorithm.rsa.RsaPrivateKey;
-import java.util.Arrays;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import java.nio.ByteBuffer;
 import org.immutables.value.Value;
 
 @Value.Immutable
@@ -35,42 +34,35 @@ public abstract class LegacyEncryptedValue extends EncryptedValue {
 
     @Override
     public final String decrypt(KeyWithType kwa) {
-        EncryptedValue translatedValue;
+        return JfrEvents.decryption(this, kwa, LegacyEncryptedValue::decryptValue);
+    }
+
+    private String decryptValue(KeyWithType kwa) {
         if (kwa.getKey() instanceof AesKey) {
             // if AES key is provided, interpret value as legacy AES value
-            translatedValue = aesValueFromLegacy(this);
+            return decryptLegacyAes(getCiphertext(), kwa);
         } else if (kwa.getKey() instanceof RsaPrivateKey) {
             // if RSA key is provided, interpret value as legacy RSA value
-            translatedValue = rsaValueFromLegacy(this);
+            return RsaOaepDecrypter.decrypt(kwa, getCiphertext(), LEGACY_RSA_OAEP_HASH_ALG, LEGACY_RSA_MDF1_HASH_ALG);
         } else {
             throw new IllegalArgumentException(
                     "decrypting legacy values not supported for key type " + kwa.getKey().getClass());
         }
-        return translatedValue.decrypt(kwa);
     }
 
     private static final int LEGACY_IV_SIZE = 256 / Byte.SIZE;
     private static final int LEGACY_TAG_SIZE = 128 / Byte.SIZE;
+    private static final RsaOaepEncrypter.HashAlgorithm LEGACY_RSA_OAEP_HASH_ALG =
+            RsaOaepEncrypter.HashAlgorithm.SHA256;
+    private static final RsaOaepEncrypter.HashAlgorithm LEGACY_RSA_MDF1_HASH_ALG =
+            RsaOaepEncrypter.HashAlgorithm.SHA1;
 
-    private static AesEncryptedValue aesValueFromLegacy(LegacyEncryptedValue value) {
-        byte[] buf = value.getCiphertext();
-        byte[] iv = Arrays.copyOfRange(buf, 0, LEGACY_IV_SIZE);
-        byte[] ct = Arrays.copyOfRange(buf, LEGACY_IV_SIZE, buf.length - LEGACY_TAG_SIZE);
-        byte[] tag = Arrays.copyOfRange(buf, buf.length - LEGACY_TAG_SIZE, buf.length);
-
-        return ImmutableAesEncryptedValue.builder()
-                .iv(iv)
-                .ciphertext(ct)
-                .tag(tag)
-                .build();
-    }
-
-    private static RsaEncryptedValue rsaValueFromLegacy(LegacyEncryptedValue value) {
-        return ImmutableRsaEncryptedValue.builder()
-                .ciphertext(value.getCiphertext())
-                .oaepHashAlg(RsaOaepEncrypter.HashAlgorithm.SHA256)
-                .mdf1HashAlg(RsaOaepEncrypter.HashAlgorithm.SHA1)
-                .build();
+    // legacy AES values are laid out as iv || ciphertext || tag, so decrypt slices of the buffer in place
+    private static String decryptLegacyAes(byte[] buf, KeyWithType kwa) {
+        ByteBuffer iv = ByteBuffer.wrap(buf, 0, LEGACY_IV_SIZE);
+        ByteBuffer ct = ByteBuffer.wrap(buf, LEGACY_IV_SIZE, buf.length - LEGACY_IV_SIZE - LEGACY_TAG_SIZE);
+        ByteBuffer tag = ByteBuffer.wrap(buf, buf.length - LEGACY_TAG_SIZE, LEGACY_TAG_SIZE);
+        return AesGcmDecrypter.decrypt(kwa, iv, ct, tag);
     }
 
     @Override
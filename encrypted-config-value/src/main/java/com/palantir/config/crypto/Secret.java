@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.Arrays;
+import java.util.function.Function;
+import javax.security.auth.Destroyable;
+
+/**
+ * A secret config value that is decrypted when it is first used rather than when the config is loaded, so that
+ * starting an application only pays for the secrets it uses. Configuration classes declare fields of this type, and
+ * the config contains the encrypted value without the variable syntax, such as {@code password: enc:...}: values
+ * written as {@code ${enc:...}} are decrypted by the config substitutors before the field is bound, and are held as
+ * already decrypted secrets.
+ *
+ * The encrypted value is parsed when it is bound, so malformed values are still reported when the config is loaded.
+ * {@link #get()} decrypts the value once, using the same keys as the substitutors, and is safe to call from several
+ * threads. A failed decryption is not remembered, so the next call tries again. The plaintext is held in a char array
+ * that {@link #destroy()} overwrites with zeros.
+ *
+ * A secret is serialized as its encrypted value, or as "&lt;redacted&gt;" if it was created from a plaintext, so that
+ * serializing a config neither decrypts its secrets nor writes their plaintexts.
+ */
+@JsonAutoDetect(getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE)
+public final class Secret implements Destroyable {
+    private static final String VARIABLE_PREFIX = "${";
+    private static final String VARIABLE_SUFFIX = "}";
+    private static final String REDACTED = "<redacted>";
+
+    // null if the secret was created from a plaintext
+    private final EncryptedValue encryptedValue;
+    private final Function<EncryptedValue, String> decrypter;
+    // null until decrypted
+    private volatile char[] plaintext;
+    private volatile boolean destroyed;
+
+    private Secret(EncryptedValue encryptedValue, Function<EncryptedValue, String> decrypter, char[] plaintext) {
+        this.encryptedValue = encryptedValue;
+        this.decrypter = decrypter;
+        this.plaintext = plaintext;
+    }
+
+    /**
+     * Returns a secret for the provided config value. An encrypted value in the "enc:..." or "enc2:..." form,
+     * optionally written as a variable ("${enc:...}"), is decrypted on first use with the default keys. Any other value
+     * is held as an already decrypted secret.
+     */
+    @JsonCreator
+    public static Secret fromString(String value) {
+        checkNotNull(value, "value");
+        String unwrapped = value.startsWith(VARIABLE_PREFIX) && value.endsWith(VARIABLE_SUFFIX)
+                ? value.substring(VARIABLE_PREFIX.length(), value.length() - VARIABLE_SUFFIX.length())
+                : value;
+        if (EncryptedValue.isEncryptedValue(unwrapped)) {
+            return of(EncryptedValue.fromString(unwrapped));
+        }
+        return ofPlaintext(value);
+    }
+
+    /**
+     * Returns a secret that decrypts the provided value on first use, using the environment keys if the encryption
+     * key environment variable is set, and the default key files otherwise.
+     */
+    public static Secret of(EncryptedValue encryptedValue) {
+        return new Secret(checkNotNull(encryptedValue, "encryptedValue"), Secret::decryptUsingDefaultKeys, null);
+    }
+
+    /**
+     * Returns a secret that decrypts the provided value on first use with the provided key.
+     */
+    public static Secret of(EncryptedValue encryptedValue, KeyWithType kwt) {
+        checkNotNull(kwt, "kwt");
+        return new Secret(checkNotNull(encryptedValue, "encryptedValue"),
+                value -> DecryptionListeners.decrypt(value, kwt), null);
+    }
+
+    /**
+     * Returns a secret that holds an already decrypted value.
+     */
+    public static Secret ofPlaintext(String plaintext) {
+        return new Secret(null, null, checkNotNull(plaintext, "plaintext").toCharArray());
+    }
+
+    /**
+     * Returns the plaintext, decrypting it if this is the first call.
+     *
+     * @throws IllegalStateException if this secret has been destroyed
+     */
+    public String get() {
+        return new String(plaintext());
+    }
+
+    /**
+     * Returns a copy of the plaintext, decrypting it if this is the first call. Callers can overwrite the copy once
+     * they no longer need it.
+     *
+     * @throws IllegalStateException if this secret has been destroyed
+     */
+    public char[] getChars() {
+        return plaintext().clone();
+    }
+
+    /**
+     * Returns whether the value has been decrypted, either by a call of {@link #get()} or because it was not encrypted.
+     */
+    public boolean isDecrypted() {
+        return plaintext != null;
+    }
+
+    /**
+     * Overwrites the plaintext with zeros. Plaintexts previously returned by {@link #get()} are not affected.
+     */
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        char[] chars = plaintext;
+        if (chars != null) {
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    @Override
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Returns the form in which this secret is serialized: the string form of the encrypted value, which {@link
+     * #fromString} accepts, or "&lt;redacted&gt;" if the secret was created from a plaintext.
+     */
+    @JsonValue
+    public String toSerializedString() {
+        return encryptedValue == null ? REDACTED : encryptedValue.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Secret{" + REDACTED + "}";
+    }
+
+    private char[] plaintext() {
+        char[] chars = plaintext;
+        if (chars == null) {
+            chars = decrypt();
+        }
+        checkState(!destroyed, "secret has been destroyed");
+        return chars;
+    }
+
+    private synchronized char[] decrypt() {
+        checkState(!destroyed, "secret has been destroyed");
+        if (plaintext == null) {
+            plaintext = decrypter.apply(encryptedValue).toCharArray();
+        }
+        return plaintext;
+    }
+
+    private static String decryptUsingDefaultKeys(EncryptedValue encryptedValue) {
+        return KeyEnvVarUtils.hasEnvironmentKeys()
+                ? KeyEnvVarUtils.decryptUsingEnvironmentKeys(encryptedValue)
+                : KeyFileUtils.decryptUsingDefaultKeys(encryptedValue);
+    }
+}
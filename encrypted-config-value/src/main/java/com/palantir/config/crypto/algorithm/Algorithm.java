@@ -20,6 +20,11 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import com.palantir.config.crypto.KeyPair;
 import com.palantir.config.crypto.algorithm.aes.AesGcmEncrypter;
 import com.palantir.config.crypto.algorithm.aes.AesKeyPair;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20KeyPair;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305Encrypter;
+import com.palantir.config.crypto.algorithm.ec.EcKeyPair;
+import com.palantir.config.crypto.algorithm.ec.EciesEncrypter;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncrypter;
 import com.palantir.config.crypto.algorithm.rsa.RsaKeyPair;
 import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
 
@@ -27,6 +32,9 @@ import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
  * Defines the known encryption algorithms. Algorithms can generate a new {@link KeyPair} that contains encryption and
  * decryption keys for the algorithm and can return an {@link Encrypter} that can be used to encrypt values using this
  * algorithm with a supported key.
+ *
+ * {@link #RSA_ENVELOPE} uses the same keys as {@link #RSA}, so keys of type {@link KeyType#RSA_PUBLIC} and {@link
+ * KeyType#RSA_PRIVATE} can be used with either algorithm.
  */
 public enum Algorithm {
     AES("AES", AesGcmEncrypter.INSTANCE) {
@@ -40,6 +48,29 @@ public enum Algorithm {
         public KeyPair newKeyPair() {
             return RsaKeyPair.newKeyPair();
         }
+    },
+    RSA_ENVELOPE("RSA-ENVELOPE", RsaEnvelopeEncrypter.INSTANCE) {
+        @Override
+        public KeyPair newKeyPair() {
+            return RsaKeyPair.newKeyPair();
+        }
+    },
+    EC("EC", EciesEncrypter.INSTANCE) {
+        @Override
+        public KeyPair newKeyPair() {
+            return EcKeyPair.newKeyPair();
+        }
+    },
+    CHACHA20_POLY1305("CHACHA20-POLY1305", ChaCha20Poly1305Encrypter.INSTANCE) {
+        @Override
+        public KeyPair newKeyPair() {
+            return ChaCha20KeyPair.newKeyPair();
+        }
+
+        @Override
+        public boolean isSupported() {
+            return ChaCha20Poly1305Encrypter.isSupported();
+        }
     };
 
     private final String name;
@@ -50,8 +81,28 @@ public enum Algorithm {
         this.encrypter = cipher;
     }
 
+    /**
+     * Returns the algorithm with the provided name, which is either the name returned by {@link #toString()} (such as
+     * "RSA-ENVELOPE") or the name of the constant (such as "RSA_ENVELOPE").
+     */
+    public static Algorithm from(String name) {
+        for (Algorithm algorithm : Algorithm.values()) {
+            if (algorithm.name.equals(name) || algorithm.name().equals(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("unrecognized algorithm: " + name);
+    }
+
     public abstract KeyPair newKeyPair();
 
+    /**
+     * Returns whether the running JDK can encrypt and decrypt values with this algorithm.
+     */
+    public boolean isSupported() {
+        return true;
+    }
+
     public Encrypter newEncrypter() {
         return encrypter;
     }
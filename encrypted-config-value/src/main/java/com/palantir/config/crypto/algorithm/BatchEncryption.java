@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyWithType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+final class BatchEncryption {
+    private static final int BATCH_SIZE = 256;
+
+    private BatchEncryption() {
+        /* do not instantiate */
+    }
+
+    static List<EncryptedValue> encryptAll(
+            Encrypter encrypter, KeyWithType kwt, List<String> plaintexts, Executor executor) {
+        List<CompletableFuture<List<EncryptedValue>>> batches = new ArrayList<>();
+        for (int start = 0; start < plaintexts.size(); start += BATCH_SIZE) {
+            List<String> batch = plaintexts.subList(start, Math.min(start + BATCH_SIZE, plaintexts.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> encrypter.encryptAll(kwt, batch), executor));
+        }
+
+        List<EncryptedValue> encryptedValues = new ArrayList<>(plaintexts.size());
+        for (CompletableFuture<List<EncryptedValue>> batch : batches) {
+            try {
+                encryptedValues.addAll(batch.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return encryptedValues;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+import javax.crypto.Cipher;
+
+/**
+ * Holds {@link Cipher} instances for a single key and transformation. Each thread that uses the context gets its own
+ * cipher, which is created on first use and then reused, so repeated operations with the same key skip the provider
+ * lookup in {@link Cipher#getInstance(String)} and, where the provider supports it, the key schedule setup.
+ */
+public final class CipherContext {
+    private final String transformation;
+    private final Key key;
+    private final ThreadLocal<PreparedCipher> preparedCiphers = new ThreadLocal<>();
+
+    public CipherContext(String transformation, Key key) {
+        this.transformation = transformation;
+        this.key = key;
+    }
+
+    /**
+     * Initializes the calling thread's cipher with the provided mode and parameters and applies the provided function
+     * to it. Initialization is skipped if the cipher was last initialized with the same mode and the same parameter
+     * instance, so callers must pass a new parameter instance whenever the cipher requires fresh parameters (such as
+     * a new IV). If the function throws, the cipher is discarded so that the next operation starts from a new one.
+     */
+    public <T> T apply(int opmode, AlgorithmParameterSpec params, CipherFunction<T> function)
+            throws GeneralSecurityException {
+        PreparedCipher prepared = preparedCiphers.get();
+        if (prepared == null) {
+            prepared = new PreparedCipher(Cipher.getInstance(transformation));
+            preparedCiphers.set(prepared);
+        }
+        try {
+            if (prepared.opmode != opmode || prepared.params != params) {
+                // forget the previous initialization first in case init fails part way through
+                prepared.params = null;
+                prepared.cipher.init(opmode, key, params);
+                prepared.opmode = opmode;
+                prepared.params = params;
+            }
+            return function.apply(prepared.cipher);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            preparedCiphers.remove();
+            throw e;
+        }
+    }
+
+    public interface CipherFunction<T> {
+        T apply(Cipher cipher) throws GeneralSecurityException;
+    }
+
+    private static final class PreparedCipher {
+        private final Cipher cipher;
+        private int opmode;
+        private AlgorithmParameterSpec params;
+
+        PreparedCipher(Cipher cipher) {
+            this.cipher = cipher;
+        }
+    }
+}
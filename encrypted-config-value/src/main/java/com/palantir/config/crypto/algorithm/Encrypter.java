@@ -20,6 +20,10 @@ package com.palantir.config.crypto.algorithm;
 import com.google.errorprone.annotations.Immutable;
 import com.palantir.config.crypto.EncryptedValue;
 import com.palantir.config.crypto.KeyWithType;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Immutable
 public interface Encrypter {
@@ -30,4 +34,38 @@ public interface Encrypter {
      * algorithm used by the {@link Encrypter}.
      */
     EncryptedValue encrypt(KeyWithType kwt, String plaintext);
+
+    /**
+     * Encrypts the provided plaintext using the provided key and returns the string form of the result in the provided
+     * format.
+     */
+    default String encryptToString(KeyWithType kwt, String plaintext, EncryptedValue.StringFormat format) {
+        return encrypt(kwt, plaintext).toString(format);
+    }
+
+    /**
+     * Encrypts each of the provided plaintexts using the provided key and returns the results in the same order.
+     * The encrypters in this library validate the key once for the whole batch rather than once per value.
+     */
+    default List<EncryptedValue> encryptAll(KeyWithType kwt, List<String> plaintexts) {
+        return encryptAll(kwt, plaintexts.stream()).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a stream of the results of encrypting each of the provided plaintexts using the provided key. Values are
+     * encrypted lazily as the returned stream is consumed, so arbitrarily large inputs can be encrypted without holding
+     * all of the results in memory. The encrypters in this library validate the key before returning.
+     */
+    default Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        return plaintexts.map(plaintext -> encrypt(kwt, plaintext));
+    }
+
+    /**
+     * Encrypts each of the provided plaintexts using the provided key, splitting the work into batches of 256 values
+     * that are run on the provided executor, and returns the results in the same order as the plaintexts. Blocks until
+     * all batches complete; if any batch fails, its exception is rethrown.
+     */
+    default List<EncryptedValue> encryptAll(KeyWithType kwt, List<String> plaintexts, Executor executor) {
+        return BatchEncryption.encryptAll(this, kwt, plaintexts, executor);
+    }
 }
@@ -21,6 +21,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.palantir.config.crypto.Key;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.aes.AesKey;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Key;
+import com.palantir.config.crypto.algorithm.ec.EcPrivateKey;
+import com.palantir.config.crypto.algorithm.ec.EcPublicKey;
 import com.palantir.config.crypto.algorithm.rsa.RsaPrivateKey;
 import com.palantir.config.crypto.algorithm.rsa.RsaPublicKey;
 
@@ -31,7 +34,10 @@ import com.palantir.config.crypto.algorithm.rsa.RsaPublicKey;
 public enum KeyType {
     AES("AES", AesKey.AesKeyGenerator.INSTANCE, Algorithm.AES),
     RSA_PUBLIC("RSA-PUB", RsaPublicKey.RsaPublicKeyGenerator.INSTANCE, Algorithm.RSA),
-    RSA_PRIVATE("RSA-PRIV", RsaPrivateKey.RsaPrivateKeyGenerator.INSTANCE, Algorithm.RSA);
+    RSA_PRIVATE("RSA-PRIV", RsaPrivateKey.RsaPrivateKeyGenerator.INSTANCE, Algorithm.RSA),
+    EC_PUBLIC("EC-PUB", EcPublicKey.EcPublicKeyGenerator.INSTANCE, Algorithm.EC),
+    EC_PRIVATE("EC-PRIV", EcPrivateKey.EcPrivateKeyGenerator.INSTANCE, Algorithm.EC),
+    CHACHA20("CHACHA20", ChaCha20Key.ChaCha20KeyGenerator.INSTANCE, Algorithm.CHACHA20_POLY1305);
 
     public static KeyType from(String name) {
         for (KeyType alg : KeyType.values()) {
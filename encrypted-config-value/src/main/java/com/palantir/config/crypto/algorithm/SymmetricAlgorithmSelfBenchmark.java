@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.immutables.value.Value;
+
+/**
+ * Measures how long decrypting a value takes with each symmetric algorithm that the running JDK supports, so that a
+ * service can find out at startup which algorithm is faster on its host. Whether AES-GCM or ChaCha20-Poly1305 is
+ * faster depends mostly on whether the JDK uses hardware instructions for AES on the host.
+ *
+ * The algorithms are measured in interleaved rounds, and the fastest round of each algorithm is reported, so that
+ * JIT compilation and other activity during startup affect all algorithms alike. The default measurement takes well
+ * under a second.
+ */
+@Value.Immutable
+public abstract class SymmetricAlgorithmSelfBenchmark {
+    private static final List<Algorithm> SYMMETRIC_ALGORITHMS =
+            ImmutableList.of(Algorithm.AES, Algorithm.CHACHA20_POLY1305);
+
+    private static final int DEFAULT_VALUE_LENGTH = 64;
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final int DEFAULT_DECRYPTIONS_PER_ROUND = 2000;
+
+    /**
+     * Returns the average time in nanoseconds taken to decrypt a value in the fastest round, for each algorithm that
+     * the running JDK supports.
+     */
+    public abstract Map<Algorithm, Long> getNanosPerDecryption();
+
+    /**
+     * Returns the algorithm that decrypted values fastest.
+     */
+    @Value.Derived
+    public Algorithm getFastest() {
+        return Collections.min(getNanosPerDecryption().entrySet(), Map.Entry.comparingByValue()).getKey();
+    }
+
+    /**
+     * Measures the symmetric algorithms with values of 64 characters.
+     */
+    public static SymmetricAlgorithmSelfBenchmark run() {
+        return run(DEFAULT_VALUE_LENGTH, DEFAULT_ROUNDS, DEFAULT_DECRYPTIONS_PER_ROUND);
+    }
+
+    /**
+     * Measures the symmetric algorithms by decrypting a value of the provided length the provided number of times in
+     * each of the provided number of rounds.
+     */
+    public static SymmetricAlgorithmSelfBenchmark run(int valueLength, int rounds, int decryptionsPerRound) {
+        checkArgument(rounds > 0 && decryptionsPerRound > 0, "rounds and decryptions per round must be positive");
+        String plaintext = Strings.repeat("x", valueLength);
+        Map<Algorithm, Subject> subjects = new EnumMap<>(Algorithm.class);
+        for (Algorithm algorithm : SYMMETRIC_ALGORITHMS) {
+            if (algorithm.isSupported()) {
+                KeyPair keyPair = algorithm.newKeyPair();
+                EncryptedValue value = algorithm.newEncrypter().encrypt(keyPair.encryptionKey(), plaintext);
+                subjects.put(algorithm, new Subject(keyPair.decryptionKey(), value));
+            }
+        }
+
+        Map<Algorithm, Long> fastestRounds = new EnumMap<>(Algorithm.class);
+        for (int round = 0; round < rounds; round++) {
+            subjects.forEach((algorithm, subject) -> fastestRounds.merge(
+                    algorithm, subject.measure(decryptionsPerRound, valueLength), Math::min));
+        }
+        return ImmutableSymmetricAlgorithmSelfBenchmark.builder()
+                .nanosPerDecryption(fastestRounds)
+                .build();
+    }
+
+    private static final class Subject {
+        private final KeyWithType key;
+        private final EncryptedValue value;
+
+        Subject(KeyWithType key, EncryptedValue value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        // returns the average time of the decryptions in nanoseconds
+        long measure(int decryptions, int valueLength) {
+            long totalLength = 0;
+            long start = System.nanoTime();
+            for (int decryption = 0; decryption < decryptions; decryption++) {
+                totalLength += value.decrypt(key).length();
+            }
+            long elapsed = System.nanoTime() - start;
+            // using the results keeps the JIT from eliminating the decryptions
+            if (totalLength != (long) decryptions * valueLength) {
+                throw new IllegalStateException("a value did not decrypt to the plaintext");
+            }
+            return elapsed / decryptions;
+        }
+    }
+}
@@ -16,24 +16,20 @@
 
 package com.palantir.config.crypto.algorithm.aes;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.config.crypto.EncryptedValue;
 import com.palantir.config.crypto.EncryptedValueVisitor;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.Algorithm;
-import com.palantir.config.crypto.algorithm.KeyType;
-import com.palantir.config.crypto.util.Suppliers;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.GCMParameterSpec;
+import com.palantir.config.crypto.jfr.JfrEvents;
 import org.immutables.value.Value;
 
 @Value.Immutable
 @JsonDeserialize(as = ImmutableAesEncryptedValue.class)
 @JsonSerialize(as = AesEncryptedValue.class)
+@JsonPropertyOrder({"mode", "iv", "ciphertext", "tag", "type"})
 public abstract class AesEncryptedValue extends EncryptedValue {
     public enum Mode {
         GCM,
@@ -59,21 +55,12 @@ public abstract class AesEncryptedValue extends EncryptedValue {
 
     @Override
     public final String decrypt(KeyWithType kwt) {
-        KeyType.AES.checkKeyArgument(kwt, AesKey.class);
-        final SecretKey secretKeySpec = ((AesKey) kwt.getKey()).getSecretKey();
-        return Suppliers.silently(() -> {
-                    // Java expects the tag at the end of the encrypted bytes.
-                    byte[] ct = Arrays.copyOf(getCiphertext(), getCiphertext().length + getTag().length);
-                    System.arraycopy(getTag(), 0, ct, getCiphertext().length, getTag().length);
-
-                    GCMParameterSpec gcmSpecWithIv = new GCMParameterSpec(getTag().length * Byte.SIZE, getIv());
-                    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-                    cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, gcmSpecWithIv);
+        return JfrEvents.decryption(this, kwt, AesEncryptedValue::decryptValue);
+    }
 
-                    byte[] decrypted = cipher.doFinal(ct);
-                    return new String(decrypted, StandardCharsets.UTF_8);
-                }
-        );
+    private String decryptValue(KeyWithType kwt) {
+        // each accessor returns a defensive copy, so only call them once
+        return AesGcmDecrypter.decrypt(kwt, getIv(), getCiphertext(), getTag());
     }
 
     @Override
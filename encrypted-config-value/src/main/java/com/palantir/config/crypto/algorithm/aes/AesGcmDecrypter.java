@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.aes;
+
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.util.Suppliers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Decrypts AES-GCM values whose IV, ciphertext and tag are stored separately, possibly as slices of a single larger
+ * buffer. The ciphertext and tag are fed to the cipher with separate update and doFinal calls, so they never need to be
+ * copied into one contiguous array.
+ */
+public final class AesGcmDecrypter {
+    private AesGcmDecrypter() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Decrypts the provided ciphertext and returns it as a UTF-8 string.
+     */
+    public static String decrypt(KeyWithType kwt, byte[] iv, byte[] ciphertext, byte[] tag) {
+        KeyType.AES.checkKeyArgument(kwt, AesKey.class);
+        return decrypt((AesKey) kwt.getKey(), iv, ciphertext, tag);
+    }
+
+    /**
+     * Decrypts the provided ciphertext using a key that has already been validated and returns it as a UTF-8 string.
+     */
+    public static String decrypt(AesKey aesKey, byte[] iv, byte[] ciphertext, byte[] tag) {
+        return decrypt(aesKey, iv, 0, iv.length, ciphertext, 0, ciphertext.length, tag, 0, tag.length);
+    }
+
+    /**
+     * Decrypts the remaining bytes of {@code ciphertext} and returns them as a UTF-8 string. The positions of the
+     * provided buffers are not modified, and buffers that are backed by an accessible array are read in place.
+     */
+    public static String decrypt(KeyWithType kwt, ByteBuffer iv, ByteBuffer ciphertext, ByteBuffer tag) {
+        KeyType.AES.checkKeyArgument(kwt, AesKey.class);
+        return decrypt((AesKey) kwt.getKey(), iv, ciphertext, tag);
+    }
+
+    /**
+     * Decrypts the remaining bytes of {@code ciphertext} using a key that has already been validated and returns them
+     * as a UTF-8 string. The positions of the provided buffers are not modified.
+     */
+    public static String decrypt(AesKey aesKey, ByteBuffer iv, ByteBuffer ciphertext, ByteBuffer tag) {
+        return decrypt(aesKey,
+                array(iv), offset(iv), iv.remaining(),
+                array(ciphertext), offset(ciphertext), ciphertext.remaining(),
+                array(tag), offset(tag), tag.remaining());
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private static String decrypt(AesKey aesKey,
+            byte[] iv, int ivOffset, int ivLength,
+            byte[] ciphertext, int ciphertextOffset, int ciphertextLength,
+            byte[] tag, int tagOffset, int tagLength) {
+        return Suppliers.silently(() -> {
+            GCMParameterSpec gcmSpecWithIv = new GCMParameterSpec(tagLength * Byte.SIZE, iv, ivOffset, ivLength);
+            byte[] plaintext = new byte[ciphertextLength];
+            int plaintextLength = aesKey.getCipherContext().apply(Cipher.DECRYPT_MODE, gcmSpecWithIv, cipher -> {
+                // Java expects the tag at the end of the encrypted bytes, which is where doFinal puts it.
+                int length = cipher.update(ciphertext, ciphertextOffset, ciphertextLength, plaintext, 0);
+                return length + cipher.doFinal(tag, tagOffset, tagLength, plaintext, length);
+            });
+            return new String(plaintext, 0, plaintextLength, StandardCharsets.UTF_8);
+        });
+    }
+
+    private static byte[] array(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static int offset(ByteBuffer buffer) {
+        return buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0;
+    }
+}
@@ -23,9 +23,9 @@ import com.palantir.config.crypto.algorithm.Encrypter;
 import com.palantir.config.crypto.algorithm.KeyType;
 import com.palantir.config.crypto.util.Suppliers;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.util.Arrays;
-import javax.crypto.SecretKey;
+import java.util.stream.Stream;
+import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 
 @Immutable
@@ -37,19 +37,41 @@ public enum AesGcmEncrypter implements Encrypter {
 
     @Override
     public final EncryptedValue encrypt(KeyWithType kwt, final String plaintext) {
+        return encryptValue(checkedKey(kwt), plaintext, NonceSources.perThreadRandom());
+    }
+
+    @Override
+    public final Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        return encryptAllWith(kwt, plaintexts, NonceSources.perThreadRandom());
+    }
+
+    /**
+     * Returns an {@link Encrypter} for AES-GCM that draws its IVs from the provided {@link NonceSource} instead of the
+     * default {@link NonceSources#perThreadRandom()}.
+     */
+    public static Encrypter withNonceSource(NonceSource nonceSource) {
+        return new NonceSourceEncrypter(nonceSource);
+    }
+
+    private static Stream<EncryptedValue> encryptAllWith(
+            KeyWithType kwt, Stream<String> plaintexts, NonceSource nonceSource) {
+        AesKey aesKey = checkedKey(kwt);
+        return plaintexts.map(plaintext -> encryptValue(aesKey, plaintext, nonceSource));
+    }
+
+    private static AesKey checkedKey(KeyWithType kwt) {
         KeyType.AES.checkKeyArgument(kwt, AesKey.class);
-        final SecretKey secretKeySpec = ((AesKey) kwt.getKey()).getSecretKey();
+        return (AesKey) kwt.getKey();
+    }
 
+    private static EncryptedValue encryptValue(AesKey aesKey, String plaintext, NonceSource nonceSource) {
         return Suppliers.silently(() -> {
-            javax.crypto.Cipher cipher = javax.crypto.Cipher.getInstance("AES/GCM/NoPadding");
-
             byte[] ivBytes = new byte[IV_SIZE_BITS / Byte.SIZE];
-            SecureRandom secureRandom = new SecureRandom();
-            secureRandom.nextBytes(ivBytes);
+            nonceSource.nextNonce(ivBytes);
 
             GCMParameterSpec gcmSpecWithIv = new GCMParameterSpec(TAG_SIZE_BITS, ivBytes);
-            cipher.init(javax.crypto.Cipher.ENCRYPT_MODE, secretKeySpec, gcmSpecWithIv);
-            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = aesKey.getCipherContext().apply(Cipher.ENCRYPT_MODE, gcmSpecWithIv,
+                    cipher -> cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8)));
 
             // Java always appends tag to ciphertext, so split apart manually
             byte[] ciphertext = Arrays.copyOfRange(encrypted, 0, encrypted.length - (TAG_SIZE_BITS / Byte.SIZE));
@@ -63,4 +85,25 @@ public enum AesGcmEncrypter implements Encrypter {
                     .build();
         });
     }
+
+    @Immutable
+    private static final class NonceSourceEncrypter implements Encrypter {
+        // nonce sources are stateful by design; the encrypter holds the same thread-safe source for its lifetime
+        @SuppressWarnings("Immutable")
+        private final NonceSource nonceSource;
+
+        NonceSourceEncrypter(NonceSource nonceSource) {
+            this.nonceSource = nonceSource;
+        }
+
+        @Override
+        public EncryptedValue encrypt(KeyWithType kwt, String plaintext) {
+            return encryptValue(checkedKey(kwt), plaintext, nonceSource);
+        }
+
+        @Override
+        public Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+            return encryptAllWith(kwt, plaintexts, nonceSource);
+        }
+    }
 }
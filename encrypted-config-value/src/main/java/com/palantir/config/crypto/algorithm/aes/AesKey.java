@@ -21,22 +21,31 @@ import com.palantir.config.crypto.ImmutableKeyWithType;
 import com.palantir.config.crypto.Key;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.CipherContext;
 import com.palantir.config.crypto.algorithm.KeyGenerator;
 import com.palantir.config.crypto.algorithm.KeyType;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 public final class AesKey implements Key {
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
     private final SecretKey secretKey;
+    private final CipherContext cipherContext;
 
     public AesKey(SecretKey secretKey) {
         this.secretKey = secretKey;
+        this.cipherContext = new CipherContext(TRANSFORMATION, secretKey);
     }
 
     public SecretKey getSecretKey() {
         return secretKey;
     }
 
+    CipherContext getCipherContext() {
+        return cipherContext;
+    }
+
     @Override
     public byte[] bytes() {
         return secretKey.getEncoded();
@@ -0,0 +1,29 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.aes;
+
+/**
+ * Supplies the IVs used by {@link AesGcmEncrypter}. An AES-GCM IV must never be used twice with the same key, so
+ * implementations must never return the same nonce twice, and must be safe to call from multiple threads at once.
+ * See {@link NonceSources} for the provided implementations.
+ */
+public interface NonceSource {
+    /**
+     * Fills the provided array with a new nonce.
+     */
+    void nextNonce(byte[] nonce);
+}
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.aes;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class NonceSources {
+    private static final int PREFIX_SIZE_BYTES = 4;
+    private static final int COUNTER_SIZE_BYTES = 8;
+    private static final long MAX_NONCES = 1L << 32;
+
+    private NonceSources() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Returns a source that draws random nonces from a pseudo-random generator owned by the calling thread. Each
+     * generator is seeded once from the platform's entropy source, so generating a nonce neither re-seeds nor contends
+     * with other threads. As with any random 96-bit IV, at most 2^32 messages should be encrypted per key.
+     */
+    public static NonceSource perThreadRandom() {
+        return PerThreadRandomNonceSource.INSTANCE;
+    }
+
+    /**
+     * Returns a source that generates 12-byte nonces made of a random 4-byte prefix followed by an 8-byte counter
+     * that starts at a random value. Nonces from one source never repeat; the random prefix and starting point make
+     * collisions between sources (for example, across processes) negligible as long as at most 2^32 messages are
+     * encrypted per key, which is the safe limit for this scheme. Each source refuses to produce more than 2^32
+     * nonces and throws an {@link IllegalStateException} once that limit is reached.
+     */
+    public static NonceSource prefixedCounter() {
+        return new PrefixedCounterNonceSource(PerThreadRandomNonceSource.current());
+    }
+
+    private enum PerThreadRandomNonceSource implements NonceSource {
+        INSTANCE;
+
+        private static final ThreadLocal<SecureRandom> RANDOM =
+                ThreadLocal.withInitial(PerThreadRandomNonceSource::newSeededRandom);
+
+        @Override
+        public void nextNonce(byte[] nonce) {
+            RANDOM.get().nextBytes(nonce);
+        }
+
+        static SecureRandom current() {
+            return RANDOM.get();
+        }
+
+        private static SecureRandom newSeededRandom() {
+            try {
+                // DRBG seeds itself from the platform's entropy source when it is first used
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                // DRBG is only available from Java 9
+                return newSeededSha1Prng();
+            }
+        }
+
+        private static SecureRandom newSeededSha1Prng() {
+            SecureRandom random;
+            try {
+                random = SecureRandom.getInstance("SHA1PRNG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+            // seeding SHA1PRNG before its first use replaces its own (possibly blocking) self-seeding
+            byte[] seed = new byte[32];
+            new SecureRandom().nextBytes(seed);
+            random.setSeed(seed);
+            return random;
+        }
+    }
+
+    private static final class PrefixedCounterNonceSource implements NonceSource {
+        private final byte[] prefix = new byte[PREFIX_SIZE_BYTES];
+        private final long start;
+        private final AtomicLong count = new AtomicLong();
+
+        PrefixedCounterNonceSource(SecureRandom random) {
+            random.nextBytes(prefix);
+            this.start = random.nextLong();
+        }
+
+        @Override
+        public void nextNonce(byte[] nonce) {
+            if (nonce.length != PREFIX_SIZE_BYTES + COUNTER_SIZE_BYTES) {
+                throw new IllegalArgumentException("nonce must be "
+                        + (PREFIX_SIZE_BYTES + COUNTER_SIZE_BYTES) + " bytes but was " + nonce.length);
+            }
+            long index = count.getAndIncrement();
+            if (index >= MAX_NONCES) {
+                throw new IllegalStateException("nonce source exhausted after " + MAX_NONCES + " nonces");
+            }
+            long counter = start + index;
+            System.arraycopy(prefix, 0, nonce, 0, PREFIX_SIZE_BYTES);
+            for (int i = 0; i < COUNTER_SIZE_BYTES; i++) {
+                nonce[nonce.length - 1 - i] = (byte) (counter >>> (i * Byte.SIZE));
+            }
+        }
+    }
+}
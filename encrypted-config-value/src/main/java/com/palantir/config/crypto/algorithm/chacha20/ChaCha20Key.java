@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import com.google.errorprone.annotations.Immutable;
+import com.palantir.config.crypto.ImmutableKeyWithType;
+import com.palantir.config.crypto.Key;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyGenerator;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+public final class ChaCha20Key implements Key {
+    static final String ALGORITHM = "ChaCha20";
+    static final String TRANSFORMATION = "ChaCha20-Poly1305";
+
+    private final SecretKey secretKey;
+
+    public ChaCha20Key(SecretKey secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    // unlike AES keys, no cipher is reused: the JDK refuses to initialize a ChaCha20 cipher again with the nonce it
+    // was last initialized with, even for decryption, so decrypting the same value twice would fail
+    Cipher newCipher(int opmode, byte[] nonce) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(opmode, secretKey, new IvParameterSpec(nonce));
+        return cipher;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return secretKey.getEncoded();
+    }
+
+    @Immutable
+    public enum ChaCha20KeyGenerator implements KeyGenerator {
+        INSTANCE;
+
+        @Override
+        public KeyWithType keyFromBytes(byte[] key) {
+            SecretKeySpec localSecretKey = new SecretKeySpec(key, ALGORITHM);
+            return ImmutableKeyWithType.builder()
+                    .type(KeyType.CHACHA20)
+                    .key(new ChaCha20Key(localSecretKey))
+                    .build();
+        }
+    }
+}
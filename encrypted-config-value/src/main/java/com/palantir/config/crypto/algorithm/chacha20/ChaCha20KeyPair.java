@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.security.SecureRandom;
+
+public final class ChaCha20KeyPair {
+
+    private static final int KEY_SIZE_BITS = 256;
+
+    // the key is generated directly rather than by a KeyGenerator, which Java 8 does not have for ChaCha20
+    public static KeyPair newKeyPair() {
+        byte[] key = new byte[KEY_SIZE_BITS / Byte.SIZE];
+        new SecureRandom().nextBytes(key);
+        return KeyPair.symmetric(KeyType.CHACHA20.keyFromBytes(key));
+    }
+
+    private ChaCha20KeyPair() {
+    }
+}
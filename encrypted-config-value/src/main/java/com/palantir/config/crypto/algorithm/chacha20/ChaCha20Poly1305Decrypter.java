@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.util.Suppliers;
+import java.nio.charset.StandardCharsets;
+import javax.crypto.Cipher;
+
+/**
+ * Decrypts ChaCha20-Poly1305 values whose nonce, ciphertext and tag are stored separately. As in {@link
+ * com.palantir.config.crypto.algorithm.aes.AesGcmDecrypter}, the ciphertext and tag are passed to the cipher
+ * separately rather than being copied into one array.
+ */
+public final class ChaCha20Poly1305Decrypter {
+    private ChaCha20Poly1305Decrypter() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Decrypts the provided ciphertext and returns it as a UTF-8 string.
+     */
+    public static String decrypt(KeyWithType kwt, byte[] nonce, byte[] ciphertext, byte[] tag) {
+        KeyType.CHACHA20.checkKeyArgument(kwt, ChaCha20Key.class);
+        return decrypt((ChaCha20Key) kwt.getKey(), nonce, ciphertext, tag);
+    }
+
+    /**
+     * Decrypts the provided ciphertext using a key that has already been validated and returns it as a UTF-8 string.
+     */
+    public static String decrypt(ChaCha20Key key, byte[] nonce, byte[] ciphertext, byte[] tag) {
+        return Suppliers.silently(() -> {
+            byte[] plaintext = new byte[ciphertext.length];
+            Cipher cipher = key.newCipher(Cipher.DECRYPT_MODE, nonce);
+            int length = cipher.update(ciphertext, 0, ciphertext.length, plaintext, 0);
+            int plaintextLength = length + cipher.doFinal(tag, 0, tag.length, plaintext, length);
+            return new String(plaintext, 0, plaintextLength, StandardCharsets.UTF_8);
+        });
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.EncryptedValueVisitor;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableChaCha20Poly1305EncryptedValue.class)
+@JsonSerialize(as = ChaCha20Poly1305EncryptedValue.class)
+@JsonPropertyOrder({"nonce", "ciphertext", "tag", "type"})
+public abstract class ChaCha20Poly1305EncryptedValue extends EncryptedValue {
+
+    public final Algorithm getType() {
+        return Algorithm.CHACHA20_POLY1305;
+    }
+
+    public abstract byte[] getNonce();
+
+    public abstract byte[] getCiphertext();
+
+    public abstract byte[] getTag();
+
+    @Override
+    public final String decrypt(KeyWithType kwt) {
+        return JfrEvents.decryption(this, kwt, ChaCha20Poly1305EncryptedValue::decryptValue);
+    }
+
+    private String decryptValue(KeyWithType kwt) {
+        return ChaCha20Poly1305Decrypter.decrypt(kwt, getNonce(), getCiphertext(), getTag());
+    }
+
+    @Override
+    public final <T> T accept(EncryptedValueVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import com.google.errorprone.annotations.Immutable;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.NonceSource;
+import com.palantir.config.crypto.algorithm.aes.NonceSources;
+import com.palantir.config.crypto.util.Suppliers;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * Encrypts values using ChaCha20-Poly1305 with random 96-bit nonces. ChaCha20-Poly1305 is fast in software, so it can
+ * outperform AES-GCM on hosts where the JDK does not use hardware instructions for AES. The cipher is provided by Java
+ * 11 and later; on earlier versions encrypting and decrypting fail, which {@link #isSupported()} detects up front.
+ */
+@Immutable
+public enum ChaCha20Poly1305Encrypter implements Encrypter {
+    INSTANCE;
+
+    static final int NONCE_SIZE_BYTES = 12;
+    static final int TAG_SIZE_BYTES = 16;
+
+    @Override
+    public final EncryptedValue encrypt(KeyWithType kwt, final String plaintext) {
+        return encryptValue(checkedKey(kwt), plaintext, NonceSources.perThreadRandom());
+    }
+
+    @Override
+    public final Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        ChaCha20Key key = checkedKey(kwt);
+        NonceSource nonceSource = NonceSources.perThreadRandom();
+        return plaintexts.map(plaintext -> encryptValue(key, plaintext, nonceSource));
+    }
+
+    /**
+     * Returns whether the running JDK provides ChaCha20-Poly1305.
+     */
+    public static boolean isSupported() {
+        try {
+            Cipher.getInstance(ChaCha20Key.TRANSFORMATION);
+            return true;
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            return false;
+        }
+    }
+
+    private static ChaCha20Key checkedKey(KeyWithType kwt) {
+        KeyType.CHACHA20.checkKeyArgument(kwt, ChaCha20Key.class);
+        return (ChaCha20Key) kwt.getKey();
+    }
+
+    private static EncryptedValue encryptValue(ChaCha20Key key, String plaintext, NonceSource nonceSource) {
+        return Suppliers.silently(() -> {
+            byte[] nonce = new byte[NONCE_SIZE_BYTES];
+            nonceSource.nextNonce(nonce);
+
+            byte[] encrypted = key.newCipher(Cipher.ENCRYPT_MODE, nonce)
+                    .doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+
+            // like AES-GCM, the tag is appended to the ciphertext, so split apart manually
+            return ImmutableChaCha20Poly1305EncryptedValue.builder()
+                    .nonce(nonce)
+                    .ciphertext(Arrays.copyOfRange(encrypted, 0, encrypted.length - TAG_SIZE_BYTES))
+                    .tag(Arrays.copyOfRange(encrypted, encrypted.length - TAG_SIZE_BYTES, encrypted.length))
+                    .build();
+        });
+    }
+}
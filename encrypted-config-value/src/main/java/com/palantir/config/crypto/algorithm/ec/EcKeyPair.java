@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import com.palantir.config.crypto.ImmutableKeyWithType;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+
+public final class EcKeyPair {
+
+    public static KeyPair newKeyPair() {
+        java.security.KeyPair ecKeyPair = Ecies.newKeyPair();
+
+        KeyWithType pub = ImmutableKeyWithType.builder()
+                .type(KeyType.EC_PUBLIC)
+                .key(new EcPublicKey((ECPublicKey) ecKeyPair.getPublic()))
+                .build();
+
+        KeyWithType priv = ImmutableKeyWithType.builder()
+                .type(KeyType.EC_PRIVATE)
+                .key(new EcPrivateKey((ECPrivateKey) ecKeyPair.getPrivate()))
+                .build();
+
+        return KeyPair.of(pub, priv);
+    }
+
+    private EcKeyPair() {
+    }
+}
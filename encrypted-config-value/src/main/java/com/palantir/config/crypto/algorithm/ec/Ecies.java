@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.EllipticCurve;
+import java.util.Arrays;
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The primitives shared by {@link EciesEncrypter} and {@link EciesDecrypter}: an ECDH key agreement between an
+ * ephemeral key and the recipient's key, followed by HKDF-SHA256 to derive a single-use AES-256 key. Because every
+ * derived key encrypts exactly one value, the AES-GCM IV is fixed to zero and not stored in the value.
+ */
+final class Ecies {
+    static final String CURVE = "secp256r1";
+    static final int TAG_SIZE_BITS = 128;
+    static final byte[] IV = new byte[12];
+
+    private static final String HMAC = "HmacSHA256";
+    private static final byte[] HKDF_INFO =
+            "encrypted-config-value ECIES AES-256-GCM".getBytes(StandardCharsets.US_ASCII);
+    private static final byte UNCOMPRESSED_POINT = 4;
+
+    private Ecies() {
+        /* do not instantiate */
+    }
+
+    static java.security.KeyPair newKeyPair() {
+        return newKeyPair(new ECGenParameterSpec(CURVE));
+    }
+
+    static java.security.KeyPair newKeyPair(AlgorithmParameterSpec params) {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(Algorithm.EC.toString());
+            keyPairGenerator.initialize(params);
+            return keyPairGenerator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the AES key shared by the owner of the private key and the owner of the private key of the provided
+     * public key. The encoded ephemeral public key is bound to the derived key.
+     */
+    static SecretKey deriveKey(PrivateKey privateKey, PublicKey publicKey, byte[] ephemeralKey)
+            throws GeneralSecurityException {
+        KeyAgreement keyAgreement = KeyAgreement.getInstance("ECDH");
+        keyAgreement.init(privateKey);
+        keyAgreement.doPhase(publicKey, true);
+        byte[] sharedSecret = keyAgreement.generateSecret();
+
+        // HKDF (RFC 5869) with an all-zero salt, expanded to a single block of output
+        Mac mac = Mac.getInstance(HMAC);
+        mac.init(new SecretKeySpec(new byte[mac.getMacLength()], HMAC));
+        byte[] pseudoRandomKey = mac.doFinal(sharedSecret);
+        Arrays.fill(sharedSecret, (byte) 0);
+        mac.init(new SecretKeySpec(pseudoRandomKey, HMAC));
+        mac.update(HKDF_INFO);
+        mac.update(ephemeralKey);
+        mac.update((byte) 1);
+        byte[] keyBytes = mac.doFinal();
+        return new SecretKeySpec(keyBytes, Algorithm.AES.toString());
+    }
+
+    /**
+     * Returns the uncompressed SEC 1 encoding of the provided point.
+     */
+    static byte[] encodePoint(ECPoint point, ECParameterSpec params) {
+        int fieldSize = fieldSize(params.getCurve());
+        byte[] encoded = new byte[1 + 2 * fieldSize];
+        encoded[0] = UNCOMPRESSED_POINT;
+        writeCoordinate(point.getAffineX(), encoded, 1, fieldSize);
+        writeCoordinate(point.getAffineY(), encoded, 1 + fieldSize, fieldSize);
+        return encoded;
+    }
+
+    /**
+     * Returns the public key on the curve of the provided parameters for an uncompressed SEC 1 encoded point. Throws
+     * {@link IllegalArgumentException} if the point is not encoded correctly or is not on the curve.
+     */
+    static PublicKey decodePoint(byte[] encoded, ECParameterSpec params) throws GeneralSecurityException {
+        EllipticCurve curve = params.getCurve();
+        int fieldSize = fieldSize(curve);
+        if (encoded.length != 1 + 2 * fieldSize || encoded[0] != UNCOMPRESSED_POINT) {
+            throw new IllegalArgumentException("ephemeral key is not an uncompressed point on the curve of the key");
+        }
+        BigInteger affineX = new BigInteger(1, Arrays.copyOfRange(encoded, 1, 1 + fieldSize));
+        BigInteger affineY = new BigInteger(1, Arrays.copyOfRange(encoded, 1 + fieldSize, encoded.length));
+        // reject points that are not on the curve, which could otherwise leak information about the private key
+        BigInteger prime = ((ECFieldFp) curve.getField()).getP();
+        BigInteger rightHandSide = affineX.pow(3).add(curve.getA().multiply(affineX)).add(curve.getB()).mod(prime);
+        if (affineX.compareTo(prime) >= 0 || affineY.compareTo(prime) >= 0
+                || !affineY.pow(2).mod(prime).equals(rightHandSide)) {
+            throw new IllegalArgumentException("ephemeral key is not a point on the curve of the key");
+        }
+        return KeyFactory.getInstance(Algorithm.EC.toString())
+                .generatePublic(new ECPublicKeySpec(new ECPoint(affineX, affineY), params));
+    }
+
+    private static int fieldSize(EllipticCurve curve) {
+        return (curve.getField().getFieldSize() + 7) / Byte.SIZE;
+    }
+
+    private static void writeCoordinate(BigInteger coordinate, byte[] encoded, int offset, int length) {
+        byte[] bytes = coordinate.toByteArray();
+        // toByteArray may add a leading sign byte or omit leading zero bytes
+        int significant = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - significant, encoded, offset + length - significant, significant);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.AesGcmDecrypter;
+import com.palantir.config.crypto.algorithm.aes.AesKey;
+import com.palantir.config.crypto.util.Suppliers;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+
+/**
+ * Decrypts values encrypted by {@link EciesEncrypter}.
+ */
+public final class EciesDecrypter {
+    private EciesDecrypter() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Decrypts the provided ciphertext and returns it as a UTF-8 string. Throws an exception if the provided key is not
+     * an EC private key.
+     */
+    public static String decrypt(KeyWithType kwt, byte[] ephemeralKey, byte[] ciphertext, byte[] tag) {
+        KeyType.EC_PRIVATE.checkKeyArgument(kwt, EcPrivateKey.class);
+        return decrypt((EcPrivateKey) kwt.getKey(), ephemeralKey, ciphertext, tag);
+    }
+
+    /**
+     * Decrypts the provided ciphertext using a key that has already been validated and returns it as a UTF-8 string.
+     */
+    public static String decrypt(EcPrivateKey privateKey, byte[] ephemeralKey, byte[] ciphertext, byte[] tag) {
+        ECPrivateKey recipientKey = privateKey.getPrivateKey();
+        AesKey derivedKey = Suppliers.silently(() -> {
+            PublicKey ephemeralPublicKey = Ecies.decodePoint(ephemeralKey, recipientKey.getParams());
+            return new AesKey(Ecies.deriveKey(recipientKey, ephemeralPublicKey, ephemeralKey));
+        });
+        return AesGcmDecrypter.decrypt(derivedKey, Ecies.IV, ciphertext, tag);
+    }
+}
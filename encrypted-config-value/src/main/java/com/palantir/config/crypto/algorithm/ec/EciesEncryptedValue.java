@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.EncryptedValueVisitor;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import org.immutables.value.Value;
+
+/**
+ * A value encrypted with AES-GCM under a key derived from an ECDH key agreement between the recipient's key and an
+ * ephemeral key that was generated for this value alone.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableEciesEncryptedValue.class)
+@JsonSerialize(as = EciesEncryptedValue.class)
+@JsonPropertyOrder({"mode", "ciphertext", "tag", "type", "ephemeral-key"})
+public abstract class EciesEncryptedValue extends EncryptedValue {
+
+    public enum Mode {
+        ECIES,
+    }
+
+    public final Algorithm getType() {
+        return Algorithm.EC;
+    }
+
+    /**
+     * Returns the encryption mode used by this encrypted value.
+     */
+    @Value.Default
+    public Mode getMode() {
+        return Mode.ECIES;
+    }
+
+    /**
+     * Returns the ephemeral public key as an uncompressed SEC 1 encoded point.
+     */
+    @JsonProperty("ephemeral-key")
+    public abstract byte[] getEphemeralKey();
+
+    public abstract byte[] getCiphertext();
+
+    public abstract byte[] getTag();
+
+    @Override
+    public final String decrypt(KeyWithType kwt) {
+        return JfrEvents.decryption(this, kwt, EciesEncryptedValue::decryptValue);
+    }
+
+    private String decryptValue(KeyWithType kwt) {
+        return EciesDecrypter.decrypt(kwt, getEphemeralKey(), getCiphertext(), getTag());
+    }
+
+    @Override
+    public final <T> T accept(EncryptedValueVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import com.google.errorprone.annotations.Immutable;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.util.Suppliers;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts values using ECIES on the curve of the provided key (P-256 for keys generated by {@link EcKeyPair}): an
+ * ephemeral key pair is generated for every value, and the value is encrypted using AES-256-GCM with a key derived
+ * from ECDH between the ephemeral private key and the provided public key using HKDF-SHA256.
+ */
+@Immutable
+public enum EciesEncrypter implements Encrypter {
+    INSTANCE;
+
+    private static final int TAG_SIZE_BYTES = Ecies.TAG_SIZE_BITS / Byte.SIZE;
+
+    @Override
+    public final EncryptedValue encrypt(KeyWithType kwt, final String plaintext) {
+        return encryptValue(checkedKey(kwt), plaintext);
+    }
+
+    @Override
+    public final Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        EcPublicKey publicKey = checkedKey(kwt);
+        return plaintexts.map(plaintext -> encryptValue(publicKey, plaintext));
+    }
+
+    private static EcPublicKey checkedKey(KeyWithType kwt) {
+        KeyType.EC_PUBLIC.checkKeyArgument(kwt, EcPublicKey.class);
+        return (EcPublicKey) kwt.getKey();
+    }
+
+    private static EncryptedValue encryptValue(EcPublicKey publicKey, String plaintext) {
+        return Suppliers.silently(() -> {
+            ECPublicKey recipientKey = publicKey.getPublicKey();
+            java.security.KeyPair ephemeralKeyPair = Ecies.newKeyPair(recipientKey.getParams());
+            byte[] ephemeralKey = Ecies.encodePoint(
+                    ((ECPublicKey) ephemeralKeyPair.getPublic()).getW(), recipientKey.getParams());
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE,
+                    Ecies.deriveKey(ephemeralKeyPair.getPrivate(), recipientKey, ephemeralKey),
+                    new GCMParameterSpec(Ecies.TAG_SIZE_BITS, Ecies.IV));
+            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+
+            // Java always appends tag to ciphertext, so split apart manually
+            return ImmutableEciesEncryptedValue.builder()
+                    .ephemeralKey(ephemeralKey)
+                    .ciphertext(Arrays.copyOfRange(encrypted, 0, encrypted.length - TAG_SIZE_BYTES))
+                    .tag(Arrays.copyOfRange(encrypted, encrypted.length - TAG_SIZE_BYTES, encrypted.length))
+                    .build();
+        });
+    }
+}
@@ -18,25 +18,20 @@ package com.palantir.config.crypto.algorithm.rsa;
 
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.config.crypto.EncryptedValue;
 import com.palantir.config.crypto.EncryptedValueVisitor;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.Algorithm;
-import com.palantir.config.crypto.algorithm.KeyType;
-import com.palantir.config.crypto.util.Suppliers;
-import java.nio.charset.StandardCharsets;
-import java.security.PrivateKey;
-import java.security.spec.MGF1ParameterSpec;
-import javax.crypto.Cipher;
-import javax.crypto.spec.OAEPParameterSpec;
-import javax.crypto.spec.PSource;
+import com.palantir.config.crypto.jfr.JfrEvents;
 import org.immutables.value.Value;
 
 @Value.Immutable
 @JsonDeserialize(as = ImmutableRsaEncryptedValue.class)
 @JsonSerialize(as = RsaEncryptedValue.class)
+@JsonPropertyOrder({"mode", "ciphertext", "type", "mdf1-alg", "oaep-alg"})
 public abstract class RsaEncryptedValue extends EncryptedValue {
 
     public enum Mode {
@@ -65,18 +60,11 @@ public abstract class RsaEncryptedValue extends EncryptedValue {
 
     @Override
     public final String decrypt(KeyWithType kwt) {
-        KeyType.RSA_PRIVATE.checkKeyArgument(kwt, RsaPrivateKey.class);
-        final PrivateKey privateKey = ((RsaPrivateKey) kwt.getKey()).getPrivateKey();
-        return Suppliers.silently(() -> {
-            Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
-            OAEPParameterSpec oaepParams = new OAEPParameterSpec(getOaepHashAlg().toString(), "MGF1",
-                    new MGF1ParameterSpec(
-                            getMdf1HashAlg().toString()), PSource.PSpecified.DEFAULT);
-            cipher.init(Cipher.DECRYPT_MODE, privateKey, oaepParams);
+        return JfrEvents.decryption(this, kwt, RsaEncryptedValue::decryptValue);
+    }
 
-            byte[] decrypted = cipher.doFinal(getCiphertext());
-            return new String(decrypted, StandardCharsets.UTF_8);
-        });
+    private String decryptValue(KeyWithType kwt) {
+        return RsaOaepDecrypter.decrypt(kwt, getCiphertext(), getOaepHashAlg(), getMdf1HashAlg());
     }
 
     @Override
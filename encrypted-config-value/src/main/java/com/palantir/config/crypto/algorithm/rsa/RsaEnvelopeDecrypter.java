@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.rsa;
+
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.AesGcmDecrypter;
+import com.palantir.config.crypto.algorithm.aes.AesKey;
+import com.palantir.config.crypto.util.Suppliers;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Decrypts {@link RsaEnvelopeEncryptedValue}s. Each {@link RsaPrivateKey} caches the data keys it unwrapped by their
+ * wrapped form, so values that share a wrapped data key only pay for the RSA operation once per private key.
+ */
+public final class RsaEnvelopeDecrypter {
+    private RsaEnvelopeDecrypter() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Decrypts the provided value and returns it as a UTF-8 string. Throws an exception if the provided key is not an
+     * RSA private key.
+     */
+    public static String decrypt(KeyWithType kwt, RsaEnvelopeEncryptedValue value) {
+        KeyType.RSA_PRIVATE.checkKeyArgument(kwt, RsaPrivateKey.class);
+        return decrypt((RsaPrivateKey) kwt.getKey(), value);
+    }
+
+    /**
+     * Decrypts the provided value using a key that has already been validated and returns it as a UTF-8 string.
+     */
+    public static String decrypt(RsaPrivateKey privateKey, RsaEnvelopeEncryptedValue value) {
+        AesKey dataKey = dataKey(privateKey,
+                new WrappedKey(value.getWrappedKey(), value.getOaepHashAlg(), value.getMdf1HashAlg()));
+        return AesGcmDecrypter.decrypt(dataKey, value.getIv(), value.getCiphertext(), value.getTag());
+    }
+
+    private static AesKey dataKey(RsaPrivateKey privateKey, WrappedKey wrappedKey) {
+        AesKey cached = privateKey.getDataKeys().getIfPresent(wrappedKey);
+        if (cached != null) {
+            return cached;
+        }
+        // concurrent misses for the same key may both unwrap it, which is harmless
+        AesKey dataKey = Suppliers.silently(() -> {
+            byte[] keyBytes = privateKey.getCipherContext().apply(Cipher.DECRYPT_MODE,
+                    RsaOaepEncrypter.oaepParameterSpec(wrappedKey.oaepHashAlg, wrappedKey.mdf1HashAlg),
+                    cipher -> cipher.doFinal(wrappedKey.bytes));
+            return new AesKey(new SecretKeySpec(keyBytes, Algorithm.AES.toString()));
+        });
+        privateKey.getDataKeys().put(wrappedKey, dataKey);
+        return dataKey;
+    }
+
+    /**
+     * A wrapped data key together with the parameters it was wrapped with, which is the key of the data key cache.
+     */
+    static final class WrappedKey {
+        private final byte[] bytes;
+        private final RsaOaepEncrypter.HashAlgorithm oaepHashAlg;
+        private final RsaOaepEncrypter.HashAlgorithm mdf1HashAlg;
+
+        WrappedKey(byte[] bytes, RsaOaepEncrypter.HashAlgorithm oaepHashAlg,
+                RsaOaepEncrypter.HashAlgorithm mdf1HashAlg) {
+            this.bytes = bytes;
+            this.oaepHashAlg = oaepHashAlg;
+            this.mdf1HashAlg = mdf1HashAlg;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof WrappedKey)) {
+                return false;
+            }
+            WrappedKey that = (WrappedKey) other;
+            return Arrays.equals(bytes, that.bytes)
+                    && oaepHashAlg == that.oaepHashAlg
+                    && mdf1HashAlg == that.mdf1HashAlg;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Arrays.hashCode(bytes), oaepHashAlg, mdf1HashAlg);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.rsa;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.EncryptedValueVisitor;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.jfr.JfrEvents;
+import org.immutables.value.Value;
+
+/**
+ * A value encrypted with AES-GCM under a data key that is itself encrypted ("wrapped") with RSA-OAEP-MDF1. Values that
+ * were encrypted together share a wrapped data key, so decrypting all of them takes a single RSA operation.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableRsaEnvelopeEncryptedValue.class)
+@JsonSerialize(as = RsaEnvelopeEncryptedValue.class)
+@JsonPropertyOrder({"mode", "iv", "ciphertext", "tag", "type", "mdf1-alg", "oaep-alg", "wrapped-key"})
+public abstract class RsaEnvelopeEncryptedValue extends EncryptedValue {
+
+    public enum Mode {
+        OAEP_GCM,
+    }
+
+    public final Algorithm getType() {
+        return Algorithm.RSA_ENVELOPE;
+    }
+
+    /**
+     * Returns the encryption mode used by this encrypted value.
+     */
+    @Value.Default
+    public Mode getMode() {
+        return Mode.OAEP_GCM;
+    }
+
+    /**
+     * Returns the AES data key encrypted with RSA-OAEP-MDF1.
+     */
+    @JsonProperty("wrapped-key")
+    public abstract byte[] getWrappedKey();
+
+    @JsonProperty("oaep-alg")
+    public abstract RsaOaepEncrypter.HashAlgorithm getOaepHashAlg();
+
+    @JsonProperty("mdf1-alg")
+    public abstract RsaOaepEncrypter.HashAlgorithm getMdf1HashAlg();
+
+    public abstract byte[] getIv();
+
+    public abstract byte[] getCiphertext();
+
+    public abstract byte[] getTag();
+
+    @Override
+    public final String decrypt(KeyWithType kwt) {
+        return JfrEvents.decryption(this, kwt, RsaEnvelopeEncryptedValue::decryptValue);
+    }
+
+    private String decryptValue(KeyWithType kwt) {
+        return RsaEnvelopeDecrypter.decrypt(kwt, this);
+    }
+
+    @Override
+    public final <T> T accept(EncryptedValueVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.rsa;
+
+import com.google.errorprone.annotations.Immutable;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.AesGcmEncrypter;
+import com.palantir.config.crypto.algorithm.aes.AesKeyPair;
+import com.palantir.config.crypto.util.Suppliers;
+import java.util.stream.Stream;
+import javax.crypto.Cipher;
+
+/**
+ * Encrypts values using RSA envelope encryption: each value is encrypted using AES-GCM with a new 256-bit data key,
+ * and the data key is encrypted using RSA-OAEP-MDF1 with SHA-256 as the hash function for both OAEP and MDF1. Unlike
+ * {@link RsaOaepEncrypter}, the size of the values is not limited by the size of the RSA key.
+ *
+ * {@link #encrypt(KeyWithType, String)} uses a new data key for every value, while the {@code encryptAll} methods use
+ * one data key for every batch of values, so decrypting the values of a batch only takes one RSA operation.
+ */
+@Immutable
+public enum RsaEnvelopeEncrypter implements Encrypter {
+    INSTANCE;
+
+    private static final RsaOaepEncrypter.HashAlgorithm OAEP_HASH_ALG = RsaOaepEncrypter.HashAlgorithm.SHA256;
+    private static final RsaOaepEncrypter.HashAlgorithm MDF1_HASH_ALG = RsaOaepEncrypter.HashAlgorithm.SHA256;
+
+    @Override
+    public final EncryptedValue encrypt(KeyWithType kwt, final String plaintext) {
+        return new DataKey(checkedKey(kwt)).encrypt(plaintext);
+    }
+
+    @Override
+    public final Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        DataKey dataKey = new DataKey(checkedKey(kwt));
+        return plaintexts.map(dataKey::encrypt);
+    }
+
+    private static RsaPublicKey checkedKey(KeyWithType kwt) {
+        KeyType.RSA_PUBLIC.checkKeyArgument(kwt, RsaPublicKey.class);
+        return (RsaPublicKey) kwt.getKey();
+    }
+
+    private static final class DataKey {
+        private final KeyWithType key;
+        private final byte[] wrappedKey;
+
+        DataKey(RsaPublicKey publicKey) {
+            this.key = AesKeyPair.newKeyPair().encryptionKey();
+            this.wrappedKey = Suppliers.silently(() -> publicKey.getCipherContext().apply(Cipher.ENCRYPT_MODE,
+                    RsaOaepEncrypter.oaepParameterSpec(OAEP_HASH_ALG, MDF1_HASH_ALG),
+                    cipher -> cipher.doFinal(key.getKey().bytes())));
+        }
+
+        EncryptedValue encrypt(String plaintext) {
+            AesEncryptedValue payload = (AesEncryptedValue) AesGcmEncrypter.INSTANCE.encrypt(key, plaintext);
+            return ImmutableRsaEnvelopeEncryptedValue.builder()
+                    .wrappedKey(wrappedKey)
+                    .oaepHashAlg(OAEP_HASH_ALG)
+                    .mdf1HashAlg(MDF1_HASH_ALG)
+                    .iv(payload.getIv())
+                    .ciphertext(payload.getCiphertext())
+                    .tag(payload.getTag())
+                    .build();
+        }
+    }
+}
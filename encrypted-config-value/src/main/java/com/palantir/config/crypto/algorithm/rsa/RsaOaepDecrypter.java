@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.rsa;
+
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.util.Suppliers;
+import java.nio.charset.StandardCharsets;
+import javax.crypto.Cipher;
+
+/**
+ * Decrypts values encrypted using RSA-OAEP-MDF1 with the provided hash algorithms.
+ */
+public final class RsaOaepDecrypter {
+    private RsaOaepDecrypter() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Decrypts the provided ciphertext and returns it as a UTF-8 string. Throws an exception if the provided key is not
+     * an RSA private key.
+     */
+    public static String decrypt(KeyWithType kwt, byte[] ciphertext,
+            RsaOaepEncrypter.HashAlgorithm oaepHashAlg, RsaOaepEncrypter.HashAlgorithm mdf1HashAlg) {
+        KeyType.RSA_PRIVATE.checkKeyArgument(kwt, RsaPrivateKey.class);
+        return decrypt((RsaPrivateKey) kwt.getKey(), ciphertext, oaepHashAlg, mdf1HashAlg);
+    }
+
+    /**
+     * Decrypts the provided ciphertext using a key that has already been validated and returns it as a UTF-8 string.
+     */
+    public static String decrypt(RsaPrivateKey privateKey, byte[] ciphertext,
+            RsaOaepEncrypter.HashAlgorithm oaepHashAlg, RsaOaepEncrypter.HashAlgorithm mdf1HashAlg) {
+        return Suppliers.silently(() -> {
+            byte[] decrypted = privateKey.getCipherContext().apply(Cipher.DECRYPT_MODE,
+                    RsaOaepEncrypter.oaepParameterSpec(oaepHashAlg, mdf1HashAlg),
+                    cipher -> cipher.doFinal(ciphertext));
+            return new String(decrypted, StandardCharsets.UTF_8);
+        });
+    }
+}
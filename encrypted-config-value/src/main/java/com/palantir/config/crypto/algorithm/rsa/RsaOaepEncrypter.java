@@ -24,8 +24,8 @@ import com.palantir.config.crypto.algorithm.Encrypter;
 import com.palantir.config.crypto.algorithm.KeyType;
 import com.palantir.config.crypto.util.Suppliers;
 import java.nio.charset.StandardCharsets;
-import java.security.PublicKey;
 import java.security.spec.MGF1ParameterSpec;
+import java.util.stream.Stream;
 import javax.crypto.Cipher;
 import javax.crypto.spec.OAEPParameterSpec;
 import javax.crypto.spec.PSource;
@@ -37,8 +37,11 @@ import javax.crypto.spec.PSource;
 public enum RsaOaepEncrypter implements Encrypter {
     INSTANCE;
 
+    static final String TRANSFORMATION = "RSA/ECB/OAEPPadding";
+
     private static final HashAlgorithm OAEP_HASH_ALG = HashAlgorithm.SHA256;
     private static final HashAlgorithm MDF1_HASH_ALG = HashAlgorithm.SHA256;
+    private static final OAEPParameterSpec[][] OAEP_PARAMETER_SPECS = createOaepParameterSpecs();
 
     public enum HashAlgorithm {
         SHA1("SHA-1"),
@@ -59,15 +62,25 @@ public enum RsaOaepEncrypter implements Encrypter {
 
     @Override
     public final EncryptedValue encrypt(KeyWithType kwt, final String plaintext) {
+        return encryptValue(checkedKey(kwt), plaintext);
+    }
+
+    @Override
+    public final Stream<EncryptedValue> encryptAll(KeyWithType kwt, Stream<String> plaintexts) {
+        RsaPublicKey publicKey = checkedKey(kwt);
+        return plaintexts.map(plaintext -> encryptValue(publicKey, plaintext));
+    }
+
+    private static RsaPublicKey checkedKey(KeyWithType kwt) {
         KeyType.RSA_PUBLIC.checkKeyArgument(kwt, RsaPublicKey.class);
-        final PublicKey publicKey = ((RsaPublicKey) kwt.getKey()).getPublicKey();
+        return (RsaPublicKey) kwt.getKey();
+    }
+
+    private static EncryptedValue encryptValue(RsaPublicKey publicKey, String plaintext) {
         return Suppliers.silently(() -> {
-            Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
-            OAEPParameterSpec oaepParams = new OAEPParameterSpec(OAEP_HASH_ALG.toString(), "MGF1",
-                    new MGF1ParameterSpec(
-                            MDF1_HASH_ALG.toString()), PSource.PSpecified.DEFAULT);
-            cipher.init(javax.crypto.Cipher.ENCRYPT_MODE, publicKey, oaepParams);
-            byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = publicKey.getCipherContext().apply(Cipher.ENCRYPT_MODE,
+                    oaepParameterSpec(OAEP_HASH_ALG, MDF1_HASH_ALG),
+                    cipher -> cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8)));
 
             return ImmutableRsaEncryptedValue.builder()
                     .ciphertext(encrypted)
@@ -76,4 +89,24 @@ public enum RsaOaepEncrypter implements Encrypter {
                     .build();
         });
     }
+
+    /**
+     * Returns the shared {@link OAEPParameterSpec} for the provided hash algorithms. Returning the same instance for
+     * the same algorithms lets {@link com.palantir.config.crypto.algorithm.CipherContext} skip re-initialization.
+     */
+    static OAEPParameterSpec oaepParameterSpec(HashAlgorithm oaepHashAlg, HashAlgorithm mdf1HashAlg) {
+        return OAEP_PARAMETER_SPECS[oaepHashAlg.ordinal()][mdf1HashAlg.ordinal()];
+    }
+
+    private static OAEPParameterSpec[][] createOaepParameterSpecs() {
+        HashAlgorithm[] algorithms = HashAlgorithm.values();
+        OAEPParameterSpec[][] specs = new OAEPParameterSpec[algorithms.length][algorithms.length];
+        for (HashAlgorithm oaepHashAlg : algorithms) {
+            for (HashAlgorithm mdf1HashAlg : algorithms) {
+                specs[oaepHashAlg.ordinal()][mdf1HashAlg.ordinal()] = new OAEPParameterSpec(oaepHashAlg.toString(),
+                        "MGF1", new MGF1ParameterSpec(mdf1HashAlg.toString()), PSource.PSpecified.DEFAULT);
+            }
+        }
+        return specs;
+    }
 }
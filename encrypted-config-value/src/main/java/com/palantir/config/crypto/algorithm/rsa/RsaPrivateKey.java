@@ -16,13 +16,17 @@
 
 package com.palantir.config.crypto.algorithm.rsa;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.errorprone.annotations.Immutable;
 import com.palantir.config.crypto.ImmutableKeyWithType;
 import com.palantir.config.crypto.Key;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.CipherContext;
 import com.palantir.config.crypto.algorithm.KeyGenerator;
 import com.palantir.config.crypto.algorithm.KeyType;
+import com.palantir.config.crypto.algorithm.aes.AesKey;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
@@ -30,16 +34,31 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 
 public final class RsaPrivateKey implements Key {
+    private static final int MAX_CACHED_DATA_KEYS = 1024;
+
     private final PrivateKey privateKey;
+    private final CipherContext cipherContext;
+    // data keys of envelope encrypted values that were unwrapped with this key
+    private final Cache<RsaEnvelopeDecrypter.WrappedKey, AesKey> dataKeys =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DATA_KEYS).build();
 
     public RsaPrivateKey(PrivateKey privateKey) {
         this.privateKey = privateKey;
+        this.cipherContext = new CipherContext(RsaOaepEncrypter.TRANSFORMATION, privateKey);
     }
 
     public PrivateKey getPrivateKey() {
         return privateKey;
     }
 
+    CipherContext getCipherContext() {
+        return cipherContext;
+    }
+
+    Cache<RsaEnvelopeDecrypter.WrappedKey, AesKey> getDataKeys() {
+        return dataKeys;
+    }
+
     @Override
     public byte[] bytes() {
         return privateKey.getEncoded();
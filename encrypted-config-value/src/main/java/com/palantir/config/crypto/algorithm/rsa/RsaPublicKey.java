@@ -21,6 +21,7 @@ import com.palantir.config.crypto.ImmutableKeyWithType;
 import com.palantir.config.crypto.Key;
 import com.palantir.config.crypto.KeyWithType;
 import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.CipherContext;
 import com.palantir.config.crypto.algorithm.KeyGenerator;
 import com.palantir.config.crypto.algorithm.KeyType;
 import java.security.KeyFactory;
@@ -31,15 +32,21 @@ import java.security.spec.X509EncodedKeySpec;
 
 public final class RsaPublicKey implements Key {
     private final PublicKey publicKey;
+    private final CipherContext cipherContext;
 
     public RsaPublicKey(PublicKey publicKey) {
         this.publicKey = publicKey;
+        this.cipherContext = new CipherContext(RsaOaepEncrypter.TRANSFORMATION, publicKey);
     }
 
     public PublicKey getPublicKey() {
         return publicKey;
     }
 
+    CipherContext getCipherContext() {
+        return cipherContext;
+    }
+
     @Override
     public byte[] bytes() {
         return publicKey.getEncoded();
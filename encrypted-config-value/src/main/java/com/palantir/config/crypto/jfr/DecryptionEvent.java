@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.palantir.config.crypto.Decryption")
+@Label("Decryption")
+@Category("Encrypted Config Value")
+@Description("Decrypting an encrypted value")
+@SuppressWarnings("checkstyle:VisibilityModifier")
+final class DecryptionEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Key Type")
+    String keyType;
+
+    @Label("Ciphertext Size")
+    @DataAmount
+    long ciphertextBytes;
+
+    @Label("Failure")
+    String failure;
+}
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import jdk.jfr.EventType;
+
+/**
+ * The implementation of {@link JfrEvents}, which is only loaded if the jdk.jfr API is available.
+ */
+final class JdkEvents {
+    private static final EventType KEY_LOAD = EventType.getEventType(KeyLoadEvent.class);
+    private static final EventType VALUE_PARSE = EventType.getEventType(ValueParseEvent.class);
+    private static final EventType DECRYPTION = EventType.getEventType(DecryptionEvent.class);
+    private static final EventType CONFIG_SUBSTITUTION = EventType.getEventType(ConfigSubstitutionEvent.class);
+    private static final EventType VALUE_SUBSTITUTION = EventType.getEventType(ValueSubstitutionEvent.class);
+
+    private JdkEvents() {
+        /* do not instantiate */
+    }
+
+    static <X extends Exception> KeyPair keyLoad(String source, String location, JfrEvents.KeyPairLoader<X> loader)
+            throws X {
+        if (!KEY_LOAD.isEnabled()) {
+            return loader.load();
+        }
+        KeyLoadEvent event = new KeyLoadEvent();
+        event.source = source;
+        event.location = location;
+        event.begin();
+        try {
+            KeyPair keyPair = loader.load();
+            event.encryptionKeyType = keyPair.encryptionKey().getType().toString();
+            event.decryptionKeyType = keyPair.decryptionKey().getType().toString();
+            event.decryptionKeyBytes = keyPair.decryptionKey().getKey().bytes().length;
+            return keyPair;
+        } catch (Exception e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    static EncryptedValue valueParse(String value, Function<String, EncryptedValue> parse) {
+        if (!VALUE_PARSE.isEnabled()) {
+            return parse.apply(value);
+        }
+        ValueParseEvent event = new ValueParseEvent();
+        event.bytes = value.length();
+        event.begin();
+        try {
+            EncryptedValue encryptedValue = parse.apply(value);
+            event.algorithm = encryptedValue.accept(ValueDescriptionVisitor.INSTANCE).algorithm();
+            return encryptedValue;
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    static <V extends EncryptedValue> String decryption(
+            V value, KeyWithType kwt, BiFunction<V, KeyWithType, String> decryption) {
+        if (!DECRYPTION.isEnabled()) {
+            return decryption.apply(value, kwt);
+        }
+        DecryptionEvent event = new DecryptionEvent();
+        ValueDescriptionVisitor.ValueDescription description = value.accept(ValueDescriptionVisitor.INSTANCE);
+        // legacy values are decrypted with the algorithm of the key
+        event.algorithm = description.isLegacy()
+                ? kwt.getType().getAlgorithm().toString()
+                : description.algorithm();
+        event.keyType = kwt.getType().toString();
+        event.ciphertextBytes = description.ciphertextBytes();
+        event.begin();
+        try {
+            return decryption.apply(value, kwt);
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    static boolean isSubstitutionEnabled() {
+        return CONFIG_SUBSTITUTION.isEnabled() || VALUE_SUBSTITUTION.isEnabled();
+    }
+
+    static <T> T configSubstitution(Supplier<T> substitution) {
+        if (!CONFIG_SUBSTITUTION.isEnabled()) {
+            return substitution.get();
+        }
+        ConfigSubstitutionEvent event = new ConfigSubstitutionEvent();
+        event.begin();
+        try {
+            return substitution.get();
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    static String valueSubstitution(String path, String value, UnaryOperator<String> substitutor) {
+        if (!VALUE_SUBSTITUTION.isEnabled()) {
+            return substitutor.apply(value);
+        }
+        ValueSubstitutionEvent event = new ValueSubstitutionEvent();
+        event.path = path;
+        event.bytes = value.length();
+        event.begin();
+        try {
+            return substitutor.apply(value);
+        } catch (RuntimeException e) {
+            event.failure = e.getClass().getName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Records JDK Flight Recorder events for loading keys, parsing encrypted values, decrypting them and substituting
+ * config values, in the "Encrypted Config Value" category. Events carry algorithms, key types, key file paths, config
+ * field paths and byte sizes, but never plaintexts or keys.
+ *
+ * Each method performs the provided operation and, if the event type is enabled in a running recording, records an
+ * event around it. Nothing is measured or allocated while the event type is disabled. On JDKs without the jdk.jfr API
+ * (Java 8 before update 262) the operations are performed without events.
+ */
+public final class JfrEvents {
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    private JfrEvents() {
+        /* do not instantiate */
+    }
+
+    /**
+     * Loads a key pair from the provided source (such as "file" or "environment") and location (such as the path of
+     * the key file).
+     */
+    public static <X extends Exception> KeyPair keyLoad(String source, String location, KeyPairLoader<X> loader)
+            throws X {
+        return AVAILABLE ? JdkEvents.keyLoad(source, location, loader) : loader.load();
+    }
+
+    /**
+     * Parses the string form of an encrypted value. The parse function should not capture state, so that it is not
+     * allocated on every call.
+     */
+    public static EncryptedValue valueParse(String value, Function<String, EncryptedValue> parse) {
+        return AVAILABLE ? JdkEvents.valueParse(value, parse) : parse.apply(value);
+    }
+
+    /**
+     * Decrypts an encrypted value with the provided key. The decryption function should not capture state, so that it
+     * is not allocated on every call.
+     */
+    public static <V extends EncryptedValue> String decryption(
+            V value, KeyWithType kwt, BiFunction<V, KeyWithType, String> decryption) {
+        return AVAILABLE ? JdkEvents.decryption(value, kwt, decryption) : decryption.apply(value, kwt);
+    }
+
+    /**
+     * Returns whether config substitution events are enabled, in which case callers should track the field paths of
+     * the values they substitute.
+     */
+    public static boolean isSubstitutionEnabled() {
+        return AVAILABLE && JdkEvents.isSubstitutionEnabled();
+    }
+
+    /**
+     * Substitutes the values of a whole config tree.
+     */
+    public static <T> T configSubstitution(Supplier<T> substitution) {
+        return AVAILABLE ? JdkEvents.configSubstitution(substitution) : substitution.get();
+    }
+
+    /**
+     * Substitutes the variables in the config value at the provided field path.
+     */
+    public static String valueSubstitution(String path, String value, UnaryOperator<String> substitutor) {
+        return AVAILABLE ? JdkEvents.valueSubstitution(path, value, substitutor) : substitutor.apply(value);
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public interface KeyPairLoader<X extends Exception> {
+        KeyPair load() throws X;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.palantir.config.crypto.KeyLoad")
+@Label("Key Load")
+@Category("Encrypted Config Value")
+@Description("Loading an encryption and a decryption key")
+@SuppressWarnings("checkstyle:VisibilityModifier")
+final class KeyLoadEvent extends Event {
+    @Label("Source")
+    String source;
+
+    @Label("Location")
+    String location;
+
+    @Label("Encryption Key Type")
+    String encryptionKeyType;
+
+    @Label("Decryption Key Type")
+    String decryptionKeyType;
+
+    @Label("Decryption Key Size")
+    @DataAmount
+    long decryptionKeyBytes;
+
+    @Label("Failure")
+    String failure;
+}
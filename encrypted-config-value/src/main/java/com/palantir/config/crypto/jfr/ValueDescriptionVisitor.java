@@ -0,0 +1,90 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import com.palantir.config.crypto.EncryptedValueVisitor;
+import com.palantir.config.crypto.LegacyEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+
+/**
+ * Describes an encrypted value by its algorithm and the size of its ciphertext.
+ */
+enum ValueDescriptionVisitor implements EncryptedValueVisitor<ValueDescriptionVisitor.ValueDescription> {
+    INSTANCE;
+
+    private static final String LEGACY = "legacy";
+
+    @Override
+    public ValueDescription visit(LegacyEncryptedValue legacyEncryptedValue) {
+        return new ValueDescription(LEGACY, legacyEncryptedValue.getCiphertext().length);
+    }
+
+    @Override
+    public ValueDescription visit(AesEncryptedValue aesEncryptedValue) {
+        return new ValueDescription(aesEncryptedValue.getType().toString(), aesEncryptedValue.getCiphertext().length);
+    }
+
+    @Override
+    public ValueDescription visit(RsaEncryptedValue rsaEncryptedValue) {
+        return new ValueDescription(rsaEncryptedValue.getType().toString(), rsaEncryptedValue.getCiphertext().length);
+    }
+
+    @Override
+    public ValueDescription visit(RsaEnvelopeEncryptedValue rsaEnvelopeEncryptedValue) {
+        return new ValueDescription(
+                rsaEnvelopeEncryptedValue.getType().toString(), rsaEnvelopeEncryptedValue.getCiphertext().length);
+    }
+
+    @Override
+    public ValueDescription visit(EciesEncryptedValue eciesEncryptedValue) {
+        return new ValueDescription(
+                eciesEncryptedValue.getType().toString(), eciesEncryptedValue.getCiphertext().length);
+    }
+
+    @Override
+    public ValueDescription visit(ChaCha20Poly1305EncryptedValue chaCha20Poly1305EncryptedValue) {
+        return new ValueDescription(chaCha20Poly1305EncryptedValue.getType().toString(),
+                chaCha20Poly1305EncryptedValue.getCiphertext().length);
+    }
+
+    static final class ValueDescription {
+        private final String algorithm;
+        private final int ciphertextBytes;
+
+        ValueDescription(String algorithm, int ciphertextBytes) {
+            this.algorithm = algorithm;
+            this.ciphertextBytes = ciphertextBytes;
+        }
+
+        // "legacy" for legacy values, whose algorithm depends on the key
+        String algorithm() {
+            return algorithm;
+        }
+
+        boolean isLegacy() {
+            return algorithm.equals(LEGACY);
+        }
+
+        int ciphertextBytes() {
+            return ciphertextBytes;
+        }
+    }
+}
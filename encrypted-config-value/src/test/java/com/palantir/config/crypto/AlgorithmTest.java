@@ -19,11 +19,19 @@ package com.palantir.config.crypto;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.palantir.config.crypto.algorithm.Algorithm;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -39,6 +47,11 @@ public final class AlgorithmTest {
         this.algorithm = algorithm;
     }
 
+    @Before
+    public void before() {
+        assumeTrue(algorithm.isSupported());
+    }
+
     @Test
     public void weGenerateRandomKeys() {
         KeyPair keyPair1 = algorithm.newKeyPair();
@@ -80,11 +93,79 @@ public final class AlgorithmTest {
         assertThat(decryptedString2, is(plaintext));
     }
 
+    @Test
+    public void weCanEncryptAllInOrder() {
+        KeyPair keyPair = algorithm.newKeyPair();
+        List<String> plaintexts = plaintexts(10);
+
+        List<EncryptedValue> encryptedValues = algorithm.newEncrypter().encryptAll(keyPair.encryptionKey(), plaintexts);
+
+        assertThat(decryptAll(encryptedValues, keyPair.decryptionKey()), is(plaintexts));
+    }
+
+    @Test
+    public void weCanEncryptAStreamInOrder() {
+        KeyPair keyPair = algorithm.newKeyPair();
+        List<String> plaintexts = plaintexts(10);
+
+        List<EncryptedValue> encryptedValues = algorithm.newEncrypter()
+                .encryptAll(keyPair.encryptionKey(), plaintexts.stream())
+                .collect(Collectors.toList());
+
+        assertThat(decryptAll(encryptedValues, keyPair.decryptionKey()), is(plaintexts));
+    }
+
+    @Test
+    public void weCanEncryptAllOnAnExecutorInOrder() {
+        KeyPair keyPair = algorithm.newKeyPair();
+        // more than one batch, with a partial last batch
+        List<String> plaintexts = plaintexts(600);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<EncryptedValue> encryptedValues =
+                    algorithm.newEncrypter().encryptAll(keyPair.encryptionKey(), plaintexts, executor);
+
+            assertThat(decryptAll(encryptedValues, keyPair.decryptionKey()), is(plaintexts));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encryptAllOnAnExecutorRethrowsFailures() {
+        algorithm.newEncrypter().encryptAll(keyForAnotherAlgorithm(), plaintexts(10), Runnable::run);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encryptAllValidatesTheKeyBeforeTheStreamIsConsumed() {
+        algorithm.newEncrypter().encryptAll(keyForAnotherAlgorithm(), Stream.of(plaintext));
+    }
+
+    private KeyWithType keyForAnotherAlgorithm() {
+        Algorithm otherAlgorithm = algorithm == Algorithm.AES ? Algorithm.RSA : Algorithm.AES;
+        return otherAlgorithm.newKeyPair().encryptionKey();
+    }
+
+    private static List<String> plaintexts(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> plaintext + " " + i)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> decryptAll(List<EncryptedValue> encryptedValues, KeyWithType decryptionKey) {
+        return encryptedValues.stream()
+                .map(encryptedValue -> encryptedValue.decrypt(decryptionKey))
+                .collect(Collectors.toList());
+    }
+
     @Parameters(name = "{0}")
     public static Collection<Object[]> data() {
         return ImmutableList.of(
                 new Object[] {"AES", Algorithm.AES},
-                new Object[] {"RSA", Algorithm.RSA}
+                new Object[] {"RSA", Algorithm.RSA},
+                new Object[] {"RSA-ENVELOPE", Algorithm.RSA_ENVELOPE},
+                new Object[] {"EC", Algorithm.EC},
+                new Object[] {"CHACHA20-POLY1305", Algorithm.CHACHA20_POLY1305}
                 );
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Strings;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class DecryptedValueCacheTest {
+    private KeyPair keyPair;
+    private DecryptedValueCache cache;
+
+    @Before
+    public void before() {
+        keyPair = Algorithm.AES.newKeyPair();
+        cache = DecryptedValueCache.create(1024 * 1024, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void weOnlyDecryptAValueOnce() {
+        String encrypted = encrypt("abc");
+
+        assertThat(cache.decrypt(encrypted, keyPair.decryptionKey()), is("abc"));
+        assertThat(cache.decrypt(encrypted, keyPair.decryptionKey()), is("abc"));
+        assertThat(cache.decrypt(EncryptedValue.fromString(encrypted), keyPair.decryptionKey()), is("abc"));
+
+        assertThat(cache.stats().loadCount(), is(1L));
+        assertThat(cache.stats().hitCount(), is(2L));
+    }
+
+    @Test
+    public void entriesAreSpecificToTheKey() {
+        String encrypted = encrypt("abc");
+        KeyWithType otherKey = Algorithm.AES.newKeyPair().decryptionKey();
+
+        assertThat(cache.decrypt(encrypted, keyPair.decryptionKey()), is("abc"));
+        try {
+            cache.decrypt(encrypted, otherKey);
+            fail();
+        } catch (RuntimeException e) {
+            // expected
+        }
+        assertThat(cache.stats().hitCount(), is(0L));
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        KeyWithType otherKey = Algorithm.AES.newKeyPair().decryptionKey();
+        String encrypted = encrypt("abc");
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.decrypt(encrypted, otherKey);
+                fail();
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }
+        assertThat(cache.stats().loadExceptionCount(), is(2L));
+    }
+
+    @Test
+    public void entriesAreEvictedOnceTheCacheIsFull() {
+        // each entry takes up more than 2KB, so at most one fits
+        cache = DecryptedValueCache.create(4096, Duration.ofMinutes(1));
+        String large = Strings.repeat("a", 1024);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.decrypt(encrypt(large), keyPair.decryptionKey()), is(large));
+        }
+
+        assertThat(cache.stats().evictionCount(), is(greaterThanOrEqualTo(9L)));
+    }
+
+    @Test
+    public void concurrentLookupsShareOneDecryption() throws Exception {
+        KeyPair rsaKeyPair = Algorithm.RSA.newKeyPair();
+        String encrypted = Algorithm.RSA.newEncrypter().encrypt(rsaKeyPair.encryptionKey(), "abc").toString();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            Callable<String> lookup = () -> cache.decrypt(encrypted, rsaKeyPair.decryptionKey());
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(lookup));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(), is("abc"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(cache.stats().loadCount(), is(1L));
+    }
+
+    private String encrypt(String plaintext) {
+        return Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), plaintext).toString();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class DecryptionListenersTest {
+    private static final String PLAINTEXT = "a secret";
+    private static final String LEGACY_VALUE = "enc:QjR4AHIYoIzvjEHf53XETM3QYnCl1mgFYC51Q7x4ebwM+h3PHVqSt/"
+            + "1un/+KvpJ2mZfMH0tifu+htRVxEPyXmt88lyKB83NpesNJEoLFLL+wBWCkppaLRuc/1w==";
+
+    private final RecordingListener listener = new RecordingListener();
+    private final KeyPair keyPair = Algorithm.AES.newKeyPair();
+    private final EncryptedValue value = Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT);
+
+    @Before
+    public void before() {
+        DecryptionListeners.register(listener);
+    }
+
+    @After
+    public void after() {
+        DecryptionListeners.unregister(listener);
+    }
+
+    @Test
+    public void keyLoadsAreReported() {
+        KeyWithType.fromString(keyPair.decryptionKey().toString());
+
+        assertThat(listener.events, contains("key AES"));
+    }
+
+    @Test
+    public void valueParsesAreReported() {
+        EncryptedValue.fromString(value.toString());
+        EncryptedValue.fromString(LEGACY_VALUE);
+
+        assertThat(listener.events, contains("parse Optional[AES]", "parse Optional.empty"));
+    }
+
+    @Test
+    public void failuresAreReported() {
+        try {
+            EncryptedValue.fromString("not an encrypted value");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            KeyWithType.fromString("AES");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        List<DecryptionResult> results =
+                EncryptedValue.decryptAll(Algorithm.AES.newKeyPair().decryptionKey(), Collections.singleton(value));
+
+        assertThat(results.get(0).isSuccess(), is(false));
+        assertThat(listener.events, contains("parse failed", "key failed", "decrypt failed AES AES"));
+    }
+
+    @Test
+    public void batchDecryptionsAreReportedPerValue() {
+        EncryptedValue.decryptAll(keyPair.decryptionKey(), Arrays.asList(value, value));
+
+        assertThat(listener.events, contains("decrypt AES AES", "decrypt AES AES"));
+    }
+
+    @Test
+    public void cacheHitsAndMissesAreReported() {
+        DecryptedValueCache cache = DecryptedValueCache.create(1024, Duration.ofMinutes(1));
+
+        cache.decrypt(value, keyPair.decryptionKey());
+        cache.decrypt(value, keyPair.decryptionKey());
+
+        assertThat(listener.events, contains("decrypt AES AES", "miss AES", "hit AES"));
+    }
+
+    @Test
+    public void directDecryptionsAreNotReported() {
+        assertThat(value.decrypt(keyPair.decryptionKey()), is(PLAINTEXT));
+
+        assertThat(listener.events, is(empty()));
+    }
+
+    @Test
+    public void failingListenersDoNotFailDecryption() {
+        DecryptionListener failingListener = new DecryptionListener() {
+            @Override
+            public void valueParsed(Optional<Algorithm> algorithm, long nanos) {
+                throw new IllegalStateException();
+            }
+        };
+        DecryptionListeners.register(failingListener);
+        try {
+            assertThat(EncryptedValue.fromString(value.toString()), is(value));
+        } finally {
+            DecryptionListeners.unregister(failingListener);
+        }
+    }
+
+    private static final class RecordingListener implements DecryptionListener {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void keyLoaded(KeyType keyType, long nanos) {
+            events.add("key " + keyType);
+        }
+
+        @Override
+        public void keyLoadFailed(RuntimeException exception) {
+            events.add("key failed");
+        }
+
+        @Override
+        public void valueParsed(Optional<Algorithm> algorithm, long nanos) {
+            events.add("parse " + algorithm);
+        }
+
+        @Override
+        public void valueParseFailed(RuntimeException exception) {
+            events.add("parse failed");
+        }
+
+        @Override
+        public void valueDecrypted(Algorithm algorithm, KeyType keyType, long nanos) {
+            events.add("decrypt " + algorithm + " " + keyType);
+        }
+
+        @Override
+        public void valueDecryptionFailed(Algorithm algorithm, KeyType keyType, RuntimeException exception) {
+            events.add("decrypt failed " + algorithm + " " + keyType);
+        }
+
+        @Override
+        public void cacheHit(KeyType keyType) {
+            events.add("hit " + keyType);
+        }
+
+        @Override
+        public void cacheMissed(KeyType keyType) {
+            events.add("miss " + keyType);
+        }
+    }
+}
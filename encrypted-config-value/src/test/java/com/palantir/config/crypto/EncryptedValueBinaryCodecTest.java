@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Strings;
+import com.google.common.io.BaseEncoding;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public final class EncryptedValueBinaryCodecTest {
+    private static final String PLAINTEXT = "my secret. I don't want anyone to know this";
+
+    @Test
+    public void binaryValuesCanBeDecrypted() {
+        for (Algorithm algorithm : supportedAlgorithms()) {
+            KeyPair keyPair = algorithm.newKeyPair();
+            String value = algorithm.newEncrypter()
+                    .encryptToString(keyPair.encryptionKey(), PLAINTEXT, EncryptedValue.StringFormat.BINARY);
+
+            assertThat(value, startsWith("enc2:"));
+            assertThat(EncryptedValue.isEncryptedValue(value), is(true));
+            assertThat(EncryptedValue.fromString(value).decrypt(keyPair.decryptionKey()), is(PLAINTEXT));
+        }
+    }
+
+    @Test
+    public void binaryValuesAreSmallerThanJsonValues() {
+        for (Algorithm algorithm : supportedAlgorithms()) {
+            EncryptedValue value = algorithm.newEncrypter().encrypt(algorithm.newKeyPair().encryptionKey(), PLAINTEXT);
+
+            assertThat(value.toString(EncryptedValue.StringFormat.BINARY).length(),
+                    lessThan(value.toString(EncryptedValue.StringFormat.JSON).length()));
+        }
+    }
+
+    @Test
+    public void formatsConvertIntoEachOther() {
+        for (Algorithm algorithm : supportedAlgorithms()) {
+            EncryptedValue value = algorithm.newEncrypter().encrypt(algorithm.newKeyPair().encryptionKey(), PLAINTEXT);
+            String binary = value.toString(EncryptedValue.StringFormat.BINARY);
+
+            assertThat(EncryptedValue.fromString(binary).toString(), is(value.toString()));
+            assertThat(EncryptedValue.fromString(value.toString()).toString(EncryptedValue.StringFormat.BINARY),
+                    is(binary));
+        }
+    }
+
+    @Test
+    public void rsaHashAlgorithmsAreRetained() {
+        RsaEncryptedValue value = ImmutableRsaEncryptedValue.builder()
+                .ciphertext(new byte[] {1, 2, 3})
+                .oaepHashAlg(RsaOaepEncrypter.HashAlgorithm.SHA1)
+                .mdf1HashAlg(RsaOaepEncrypter.HashAlgorithm.SHA256)
+                .build();
+
+        assertThat(EncryptedValueBinaryCodec.decode(EncryptedValueBinaryCodec.encode(value)), is(value));
+    }
+
+    @Test
+    public void longValuesUseMultiByteLengths() {
+        for (int length : new int[] {127, 128, 16383, 16384, 100000}) {
+            KeyPair keyPair = Algorithm.AES.newKeyPair();
+            String plaintext = Strings.repeat("x", length);
+            String value = Algorithm.AES.newEncrypter()
+                    .encryptToString(keyPair.encryptionKey(), plaintext, EncryptedValue.StringFormat.BINARY);
+
+            assertThat(EncryptedValue.fromString(value).decrypt(keyPair.decryptionKey()), is(plaintext));
+        }
+    }
+
+    @Test
+    public void legacyValuesKeepTheirLegacyForm() {
+        String legacy = "enc:QjR4AHIYoIzvjEHf53XETM3QYnCl1mgFYC51Q7x4ebwM+h3PHVqSt/"
+                + "1un/+KvpJ2mZfMH0tifu+htRVxEPyXmt88lyKB83NpesNJEoLFLL+wBWCkppaLRuc/1w==";
+
+        assertThat(EncryptedValue.fromString(legacy).toString(EncryptedValue.StringFormat.BINARY), is(legacy));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedVersionsAreRejected() {
+        EncryptedValue.fromString(binary(2, 1, 0, 0, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedAlgorithmsAreRejected() {
+        EncryptedValue.fromString(binary(1, 9, 0, 0, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedValuesAreRejected() {
+        EncryptedValue.fromString(binary(1, 1, 0, 12, 1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trailingBytesAreRejected() {
+        EncryptedValue.fromString(binary(1, 1, 0, 1, 7, 1, 8, 1, 9, 0));
+    }
+
+    @Test
+    public void keyIdsAreIgnored() {
+        EncryptedValue value = EncryptedValue.fromString(binary(1, 1, 2, 'i', 'd', 1, 7, 1, 8, 1, 9));
+
+        assertThat(value.toString(EncryptedValue.StringFormat.BINARY), is(binary(1, 1, 0, 1, 7, 1, 8, 1, 9)));
+    }
+
+    private static String binary(int... bytes) {
+        byte[] value = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            value[i] = (byte) bytes[i];
+        }
+        return "enc2:" + BaseEncoding.base64().encode(value);
+    }
+
+    private static List<Algorithm> supportedAlgorithms() {
+        return Arrays.stream(Algorithm.values()).filter(Algorithm::isSupported).collect(Collectors.toList());
+    }
+}
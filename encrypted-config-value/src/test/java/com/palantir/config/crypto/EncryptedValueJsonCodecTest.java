@@ -0,0 +1,198 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.BaseEncoding;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.aes.AesEncryptedValue;
+import com.palantir.config.crypto.algorithm.aes.ImmutableAesEncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.chacha20.ImmutableChaCha20Poly1305EncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.EciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.ec.ImmutableEciesEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.ImmutableRsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaEnvelopeEncryptedValue;
+import com.palantir.config.crypto.algorithm.rsa.RsaOaepEncrypter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public final class EncryptedValueJsonCodecTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final AesEncryptedValue AES_VALUE = ImmutableAesEncryptedValue.builder()
+            .iv(new byte[] {1, 2, 3})
+            .ciphertext(new byte[] {4, 5})
+            .tag(new byte[] {6})
+            .build();
+    private static final RsaEncryptedValue RSA_VALUE = ImmutableRsaEncryptedValue.builder()
+            .ciphertext(new byte[] {7, 8, 9})
+            .oaepHashAlg(RsaOaepEncrypter.HashAlgorithm.SHA256)
+            .mdf1HashAlg(RsaOaepEncrypter.HashAlgorithm.SHA1)
+            .build();
+    private static final RsaEnvelopeEncryptedValue RSA_ENVELOPE_VALUE = ImmutableRsaEnvelopeEncryptedValue.builder()
+            .wrappedKey(new byte[] {7, 8, 9})
+            .oaepHashAlg(RsaOaepEncrypter.HashAlgorithm.SHA256)
+            .mdf1HashAlg(RsaOaepEncrypter.HashAlgorithm.SHA1)
+            .iv(new byte[] {1, 2, 3})
+            .ciphertext(new byte[] {4, 5})
+            .tag(new byte[] {6})
+            .build();
+    private static final EciesEncryptedValue ECIES_VALUE = ImmutableEciesEncryptedValue.builder()
+            .ephemeralKey(new byte[] {7, 8, 9})
+            .ciphertext(new byte[] {4, 5})
+            .tag(new byte[] {6})
+            .build();
+    private static final ChaCha20Poly1305EncryptedValue CHACHA20_POLY1305_VALUE =
+            ImmutableChaCha20Poly1305EncryptedValue.builder()
+                    .nonce(new byte[] {1, 2, 3})
+                    .ciphertext(new byte[] {4, 5})
+                    .tag(new byte[] {6})
+                    .build();
+
+    @Test
+    public void writesAesValuesAsJacksonDoes() throws IOException {
+        assertThat(json(EncryptedValueJsonCodec.encode(AES_VALUE)), is(jacksonJson(AES_VALUE)));
+    }
+
+    @Test
+    public void writesRsaValuesAsJacksonDoes() throws IOException {
+        assertThat(json(EncryptedValueJsonCodec.encode(RSA_VALUE)), is(jacksonJson(RSA_VALUE)));
+    }
+
+    @Test
+    public void writesRsaEnvelopeValuesAsJacksonDoes() throws IOException {
+        assertThat(json(EncryptedValueJsonCodec.encode(RSA_ENVELOPE_VALUE)), is(jacksonJson(RSA_ENVELOPE_VALUE)));
+    }
+
+    @Test
+    public void writesEciesValuesAsJacksonDoes() throws IOException {
+        assertThat(json(EncryptedValueJsonCodec.encode(ECIES_VALUE)), is(jacksonJson(ECIES_VALUE)));
+    }
+
+    @Test
+    public void writesChaCha20Poly1305ValuesAsJacksonDoes() throws IOException {
+        assertThat(json(EncryptedValueJsonCodec.encode(CHACHA20_POLY1305_VALUE)),
+                is(jacksonJson(CHACHA20_POLY1305_VALUE)));
+    }
+
+    @Test
+    public void readsWhatItWrites() {
+        assertThat(EncryptedValueJsonCodec.decode(EncryptedValueJsonCodec.encode(AES_VALUE)),
+                is(Optional.of(AES_VALUE)));
+        assertThat(EncryptedValueJsonCodec.decode(EncryptedValueJsonCodec.encode(RSA_VALUE)),
+                is(Optional.of(RSA_VALUE)));
+        assertThat(EncryptedValueJsonCodec.decode(EncryptedValueJsonCodec.encode(RSA_ENVELOPE_VALUE)),
+                is(Optional.of(RSA_ENVELOPE_VALUE)));
+        assertThat(EncryptedValueJsonCodec.decode(EncryptedValueJsonCodec.encode(ECIES_VALUE)),
+                is(Optional.of(ECIES_VALUE)));
+        assertThat(EncryptedValueJsonCodec.decode(EncryptedValueJsonCodec.encode(CHACHA20_POLY1305_VALUE)),
+                is(Optional.of(CHACHA20_POLY1305_VALUE)));
+    }
+
+    @Test
+    public void writesAndReadsBinaryFieldsOfEveryLength() {
+        for (int length = 0; length < 20; length++) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (i * 97 + 200);
+            }
+            AesEncryptedValue value =
+                    ImmutableAesEncryptedValue.builder().iv(bytes).ciphertext(bytes).tag(bytes).build();
+            String base64 = BaseEncoding.base64().encode(bytes);
+
+            byte[] json = EncryptedValueJsonCodec.encode(value);
+            assertThat(json(json), is("{\"mode\":\"GCM\",\"iv\":\"" + base64 + "\",\"ciphertext\":\"" + base64
+                    + "\",\"tag\":\"" + base64 + "\",\"type\":\"AES\"}"));
+            assertThat(EncryptedValueJsonCodec.decode(json), is(Optional.of(value)));
+        }
+    }
+
+    @Test
+    public void readsWhatJacksonReads() throws IOException {
+        for (Algorithm algorithm : supportedAlgorithms()) {
+            KeyPair keyPair = algorithm.newKeyPair();
+            EncryptedValue value = algorithm.newEncrypter().encrypt(keyPair.encryptionKey(), "secret");
+            byte[] jacksonJson = MAPPER.writeValueAsBytes(value);
+
+            assertThat(EncryptedValueJsonCodec.decode(jacksonJson).get().toString(), is(value.toString()));
+        }
+    }
+
+    @Test
+    public void readsFieldsInAnyOrderWithWhitespace() {
+        String json = "\n{ \"type\" : \"AES\",\t\"tag\":\"Bg==\" ,\r\n\"ciphertext\":\"BAU=\", \"iv\": \"AQID\" }\n";
+
+        assertThat(EncryptedValueJsonCodec.decode(bytes(json)), is(Optional.of(AES_VALUE)));
+    }
+
+    @Test
+    public void leavesOtherJsonToJackson() {
+        assertThat(decode("{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\",\"iv\":\"AQ\\u0049D\"}"),
+                is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\",\"iv\":\"AQID\",\"x\":\"\"}"),
+                is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\"}"), is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\",\"iv\":null}"),
+                is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\",\"iv\":\"A\"}"),
+                is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"mode\":\"CBC\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\","
+                + "\"iv\":\"AQID\"}"), is(Optional.empty()));
+        assertThat(decode("{\"type\":\"DES\"}"), is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\",\"type\":\"AES\"}"), is(Optional.empty()));
+        assertThat(decode("{\"type\":\"AES\""), is(Optional.empty()));
+    }
+
+    @Test
+    public void jsonLeftToJacksonIsStillParsed() {
+        String json = "{\"type\":\"AES\",\"tag\":\"Bg==\",\"ciphertext\":\"BAU=\",\"iv\":\"AQ\\u0049D\"}";
+        String value = "enc:" + BaseEncoding.base64().encode(bytes(json));
+
+        assertThat(EncryptedValue.fromString(value), is(AES_VALUE));
+    }
+
+    private static Optional<EncryptedValue> decode(String json) {
+        return EncryptedValueJsonCodec.decode(bytes(json));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String jacksonJson(EncryptedValue value) throws IOException {
+        return json(MAPPER.writeValueAsBytes(value));
+    }
+
+    private static String json(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Algorithm> supportedAlgorithms() {
+        return Arrays.stream(Algorithm.values()).filter(Algorithm::isSupported).collect(Collectors.toList());
+    }
+}
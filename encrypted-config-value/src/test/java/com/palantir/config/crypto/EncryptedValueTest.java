@@ -16,14 +16,20 @@
 
 package com.palantir.config.crypto;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
 import com.palantir.config.crypto.algorithm.Algorithm;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import org.junit.Test;
 
 public final class EncryptedValueTest {
@@ -107,6 +113,34 @@ public final class EncryptedValueTest {
         EncryptedValue.fromString(invalid); // throws if suffix is not a base64-encoded string
     }
 
+    @Test
+    public void legacyValuesThatStartLikeJsonAreParsedAsLegacyValues() {
+        byte[] ciphertext = {'{', 0x12, 0x34, (byte) 0xFE};
+        String value = "enc:" + BaseEncoding.base64().encode(ciphertext);
+
+        EncryptedValue encryptedValue = EncryptedValue.fromString(value);
+        assertThat(encryptedValue, instanceOf(LegacyEncryptedValue.class));
+        assertThat(((LegacyEncryptedValue) encryptedValue).getCiphertext(), is(ciphertext));
+    }
+
+    @Test
+    public void jsonValuesWithLeadingWhitespaceAreParsedAsJson() {
+        EncryptedValue expected = Algorithm.AES.newEncrypter().encrypt(aesKey, plaintext);
+        byte[] json = BaseEncoding.base64().decode(expected.toString().substring("enc:".length()));
+        byte[] indentedJson = new byte[json.length + 2];
+        indentedJson[0] = '\n';
+        indentedJson[1] = ' ';
+        System.arraycopy(json, 0, indentedJson, 2, json.length);
+
+        EncryptedValue encryptedValue = EncryptedValue.fromString("enc:" + BaseEncoding.base64().encode(indentedJson));
+        assertThat(encryptedValue.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void emptyValuesAreParsedAsLegacyValues() {
+        assertThat(EncryptedValue.fromString("enc:"), instanceOf(LegacyEncryptedValue.class));
+    }
+
     private void weCannotDecryptWithTheWrongKey(Algorithm algorithm) throws NoSuchAlgorithmException {
         KeyPair keyPair = algorithm.newKeyPair();
         KeyPair otherKeyPair = algorithm.newKeyPair();
@@ -163,4 +197,45 @@ public final class EncryptedValueTest {
         weCanDecryptUsingAKeyFile(Algorithm.RSA);
     }
 
+    @Test
+    public void decryptAllReturnsResultsInOrderAndReportsFailures() {
+        EncryptedValue legacyAes = EncryptedValue.fromString(
+                "enc:QjR4AHIYoIzvjEHf53XETM3QYnCl1mgFYC51Q7x4ebwM+h3PHVqSt/"
+                        + "1un/+KvpJ2mZfMH0tifu+htRVxEPyXmt88lyKB83NpesNJEoLFLL+wBWCkppaLRuc/1w==");
+        EncryptedValue aes = Algorithm.AES.newEncrypter().encrypt(aesKey, "aes");
+        EncryptedValue rsa = Algorithm.RSA.newEncrypter().encrypt(rsaPubKey, "rsa");
+        EncryptedValue otherAes = Algorithm.AES.newEncrypter().encrypt(Algorithm.AES.newKeyPair().encryptionKey(), "");
+
+        List<DecryptionResult> results =
+                EncryptedValue.decryptAll(aesKey, ImmutableList.of(legacyAes, rsa, aes, otherAes, aes));
+
+        assertThat(results.size(), is(5));
+        assertThat(results.get(0).getOrThrow(), is(plaintext));
+        assertThat(results.get(1).getError().get(), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(results.get(2).getOrThrow(), is("aes"));
+        assertThat(results.get(3).isSuccess(), is(false));
+        assertThat(results.get(4).getOrThrow(), is("aes"));
+    }
+
+    @Test
+    public void decryptAllDecryptsRsaAndLegacyRsaValues() {
+        EncryptedValue legacyRsa = EncryptedValue.fromString(
+                "enc:GNOe/P/KQ8fvuhhBVNMZQ2jDu+cdv7im1N4GamZ64u9LhvoiLP6RiS"
+                        + "FnHFRcbIupEIxJQ1IM/9cJ0DpUsxPpObH+vV0fCZZ/Aqrb08s46hodTPDLU76JN"
+                        + "rtaxlCssXYxFN/Ni8k95pKauwPxRfvTP0SUf7o9rsZrY6LdV9+M3y6mNrEIKevA"
+                        + "ZQZtNmvXriclQGV1CwRzV/0sNVuTfNqNw0lDsI4hcvC26DhLrXla8jCUiKEYDFA"
+                        + "qVr2DaTwtV3htxtCB36Jk6Lg5abdcc9B/ZqV7lfUIddGEuXFzhz8KIIGtwVVXqi"
+                        + "s15Dw1ECSNJhicHZp43vSYN9y9NJTnvTAhCQ==");
+        EncryptedValue rsa = Algorithm.RSA.newEncrypter().encrypt(rsaPubKey, "rsa");
+
+        List<DecryptionResult> results = EncryptedValue.decryptAll(rsaPrivKey, ImmutableList.of(rsa, legacyRsa));
+
+        assertThat(results.get(0).getOrThrow(), is("rsa"));
+        assertThat(results.get(1).getOrThrow(), is(plaintext));
+    }
+
+    @Test
+    public void decryptionResultsDoNotIncludeThePlaintextInToString() {
+        assertThat(DecryptionResult.success(plaintext).toString(), not(containsString(plaintext)));
+    }
 }
@@ -16,7 +16,11 @@
 
 package com.palantir.config.crypto;
 
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -116,6 +120,42 @@ public class KeyEnvVarUtilsTest {
         assertEquals(result.decryptionKey().toString(), decryptionKey);
     }
 
+    @Test
+    public void retrieveKeyPairFromEnvVarReusesKeyPairWhileEnvironmentIsUnchanged() {
+        when(systemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn(encryptionKey);
+        when(systemProxy.getenv(DECRYPTION_KEY_NAME)).thenReturn(decryptionKey);
+
+        KeyPair result = KeyEnvVarUtils.retrieveKeyPairFromEnvVar();
+
+        assertThat(KeyEnvVarUtils.retrieveKeyPairFromEnvVar(), is(sameInstance(result)));
+    }
+
+    @Test
+    public void retrieveKeyPairFromEnvVarReparsesWhenEnvironmentChanges() {
+        when(systemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn(encryptionKey);
+        when(systemProxy.getenv(DECRYPTION_KEY_NAME)).thenReturn(decryptionKey);
+        KeyPair asymmetric = KeyEnvVarUtils.retrieveKeyPairFromEnvVar();
+
+        when(systemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn(symmetricKey);
+        when(systemProxy.getenv(DECRYPTION_KEY_NAME)).thenReturn("");
+        KeyPair symmetric = KeyEnvVarUtils.retrieveKeyPairFromEnvVar();
+
+        assertThat(symmetric, is(not(sameInstance(asymmetric))));
+        assertEquals(symmetric.decryptionKey().toString(), symmetricKey);
+    }
+
+    @Test
+    public void retrieveKeyPairFromEnvVarReparsesWhenSystemProxyChanges() {
+        when(systemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn(symmetricKey);
+        KeyPair result = KeyEnvVarUtils.retrieveKeyPairFromEnvVar();
+
+        SystemProxy otherSystemProxy = mock(SystemProxy.class);
+        when(otherSystemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn(symmetricKey);
+        KeyEnvVarUtils.setSystemProxy(otherSystemProxy);
+
+        assertThat(KeyEnvVarUtils.retrieveKeyPairFromEnvVar(), is(not(sameInstance(result))));
+    }
+
     @Test(expected = RuntimeException.class)
     public void decryptFailsWhenKeyIsntPresent() {
         when(systemProxy.getenv(ENCRYPTION_KEY_NAME)).thenReturn("");
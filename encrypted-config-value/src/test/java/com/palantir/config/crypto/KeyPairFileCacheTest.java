@@ -0,0 +1,112 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class KeyPairFileCacheTest {
+    private Path keyPath;
+
+    @Before
+    public void before() throws IOException {
+        keyPath = Files.createTempDirectory("keys").resolve("test.key");
+        KeyFileUtils.keyPairToFile(Algorithm.AES.newKeyPair(), keyPath);
+    }
+
+    @Test
+    public void weReturnTheCachedKeyPairWhileTheFilesAreUnchanged() throws IOException {
+        KeyPairFileCache cache = KeyPairFileCache.validatingAttributes();
+
+        KeyPair keyPair = cache.get(keyPath);
+
+        assertThat(cache.get(keyPath), is(sameInstance(keyPair)));
+        assertThat(cache.get(keyPath.getParent().resolve(".").resolve("test.key")), is(sameInstance(keyPair)));
+    }
+
+    @Test
+    public void weReloadTheKeyPairWhenTheFilesChange() throws IOException {
+        KeyPairFileCache cache = KeyPairFileCache.validatingAttributes();
+        assertThat(cache.get(keyPath).decryptionKey().getType(), is(KeyType.AES));
+
+        rotateToRsa();
+
+        assertThat(cache.get(keyPath).decryptionKey().getType(), is(KeyType.RSA_PRIVATE));
+    }
+
+    @Test
+    public void weReloadTheKeyPairWhenAWatchedDirectoryChanges() throws Exception {
+        try (KeyPairFileCache cache = KeyPairFileCache.watching()) {
+            KeyPair keyPair = cache.get(keyPath);
+            assertThat(cache.get(keyPath), is(sameInstance(keyPair)));
+
+            rotateToRsa();
+
+            // watch services may deliver events asynchronously (or by polling), so wait for the change to be seen
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (cache.get(keyPath).decryptionKey().getType() != KeyType.RSA_PRIVATE
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(cache.get(keyPath).decryptionKey().getType(), is(KeyType.RSA_PRIVATE));
+        }
+    }
+
+    @Test
+    public void weReloadTheKeyPairWhenAWatchedDirectoryIsRecreated() throws Exception {
+        try (KeyPairFileCache cache = KeyPairFileCache.watching()) {
+            cache.get(keyPath);
+
+            Files.delete(keyPath);
+            Files.deleteIfExists(KeyFileUtils.privatePath(keyPath));
+            Files.delete(keyPath.getParent());
+            // wait for the deletion to be seen, and give the watcher time to drop the directory's registration
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (keyPairIsCached(cache) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Thread.sleep(500);
+            Files.createDirectory(keyPath.getParent());
+            KeyFileUtils.keyPairToFile(Algorithm.RSA.newKeyPair(), keyPath);
+
+            assertThat(cache.get(keyPath).decryptionKey().getType(), is(KeyType.RSA_PRIVATE));
+        }
+    }
+
+    private boolean keyPairIsCached(KeyPairFileCache cache) {
+        try {
+            cache.get(keyPath);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void rotateToRsa() throws IOException {
+        Files.delete(keyPath);
+        KeyFileUtils.keyPairToFile(Algorithm.RSA.newKeyPair(), keyPath);
+    }
+}
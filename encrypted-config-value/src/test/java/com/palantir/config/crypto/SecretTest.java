@@ -0,0 +1,148 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.KeyType;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class SecretTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PLAINTEXT = "a secret";
+
+    private final KeyPair keyPair = Algorithm.AES.newKeyPair();
+    private final EncryptedValue encryptedValue =
+            Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    private final AtomicInteger decryptions = new AtomicInteger();
+    private final DecryptionListener listener = new DecryptionListener() {
+        @Override
+        public void valueDecrypted(Algorithm algorithm, KeyType keyType, long nanos) {
+            decryptions.incrementAndGet();
+        }
+    };
+
+    @Before
+    public void before() {
+        DecryptionListeners.register(listener);
+    }
+
+    @After
+    public void after() {
+        DecryptionListeners.unregister(listener);
+    }
+
+    @Test
+    public void serializingDoesNotDecryptOrRevealThePlaintext() throws IOException {
+        Secret secret = Secret.of(encryptedValue, keyPair.decryptionKey());
+
+        String json = MAPPER.writeValueAsString(Collections.singletonMap("password", secret));
+
+        assertThat(json, is("{\"password\":\"" + encryptedValue + "\"}"));
+        assertThat(secret.isDecrypted(), is(false));
+        secret.get();
+        assertThat(MAPPER.writeValueAsString(secret), is("\"" + encryptedValue + "\""));
+        assertThat(MAPPER.writeValueAsString(Secret.ofPlaintext(PLAINTEXT)), not(containsString(PLAINTEXT)));
+    }
+
+    @Test
+    public void valuesAreDecryptedOnceOnFirstUse() {
+        Secret secret = Secret.of(encryptedValue, keyPair.decryptionKey());
+
+        assertThat(secret.isDecrypted(), is(false));
+        assertThat(decryptions.get(), is(0));
+        assertThat(secret.get(), is(PLAINTEXT));
+        assertThat(secret.get(), is(PLAINTEXT));
+        assertThat(new String(secret.getChars()), is(PLAINTEXT));
+        assertThat(secret.isDecrypted(), is(true));
+        assertThat(decryptions.get(), is(1));
+    }
+
+    @Test
+    public void secretsBindWithoutDecrypting() throws IOException {
+        Config config = MAPPER.readValue(
+                "{\"password\": \"" + encryptedValue + "\", \"substituted\": \"" + PLAINTEXT + "\"}", Config.class);
+
+        assertThat(config.password.isDecrypted(), is(false));
+        assertThat(config.substituted.isDecrypted(), is(true));
+        assertThat(config.substituted.get(), is(PLAINTEXT));
+        assertThat(decryptions.get(), is(0));
+    }
+
+    @Test
+    public void variablesAreUnwrapped() {
+        Secret secret = Secret.fromString("${" + encryptedValue + "}");
+
+        assertThat(secret.isDecrypted(), is(false));
+    }
+
+    @Test
+    public void failedDecryptionsAreRetried() {
+        Secret secret = Secret.of(encryptedValue, Algorithm.AES.newKeyPair().decryptionKey());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                secret.get();
+                fail();
+            } catch (RuntimeException e) {
+                assertThat(secret.isDecrypted(), is(false));
+            }
+        }
+    }
+
+    @Test
+    public void destroyedSecretsAreZeroedAndCannotBeUsed() {
+        Secret secret = Secret.ofPlaintext(PLAINTEXT);
+        char[] plaintext = secret.getChars();
+
+        secret.destroy();
+
+        assertThat(secret.isDestroyed(), is(true));
+        assertThat(new String(plaintext), is(PLAINTEXT));
+        try {
+            secret.get();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void plaintextsAreNotPrinted() {
+        assertThat(Secret.ofPlaintext(PLAINTEXT).toString(), not(containsString(PLAINTEXT)));
+    }
+
+    private static final class Config {
+        @JsonProperty
+        private Secret password;
+
+        @JsonProperty
+        private Secret substituted;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.spec.GCMParameterSpec;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class CipherContextTest {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private CipherContext context;
+
+    @Before
+    public void before() throws GeneralSecurityException {
+        context = new CipherContext("AES/GCM/NoPadding", KeyGenerator.getInstance("AES").generateKey());
+    }
+
+    @Test
+    public void weReuseTheCipherOnTheSameThread() throws GeneralSecurityException {
+        Cipher first = context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher);
+        Cipher second = context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher);
+
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void eachThreadGetsItsOwnCipher() throws Exception {
+        Cipher mine = context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher);
+
+        AtomicReference<Cipher> theirs = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                theirs.set(context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher));
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(theirs.get(), is(not(sameInstance(mine))));
+    }
+
+    @Test
+    public void weDiscardTheCipherAfterAFailure() throws GeneralSecurityException {
+        Cipher first = context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher);
+        try {
+            context.apply(Cipher.DECRYPT_MODE, newSpec(), cipher -> cipher.doFinal(new byte[32]));
+            fail();
+        } catch (AEADBadTagException e) {
+            // expected
+        }
+
+        Cipher second = context.apply(Cipher.ENCRYPT_MODE, newSpec(), cipher -> cipher);
+        assertThat(second, is(not(sameInstance(first))));
+    }
+
+    private static GCMParameterSpec newSpec() {
+        // GCM refuses to encrypt twice with the same key and IV
+        byte[] iv = new byte[12];
+        RANDOM.nextBytes(iv);
+        return new GCMParameterSpec(128, iv);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public final class SymmetricAlgorithmSelfBenchmarkTest {
+
+    @Test
+    public void measuresEverySupportedSymmetricAlgorithm() {
+        SymmetricAlgorithmSelfBenchmark benchmark = SymmetricAlgorithmSelfBenchmark.run(16, 2, 10);
+
+        assertThat(benchmark.getNanosPerDecryption(), hasKey(Algorithm.AES));
+        assertThat(benchmark.getNanosPerDecryption().containsKey(Algorithm.CHACHA20_POLY1305),
+                is(Algorithm.CHACHA20_POLY1305.isSupported()));
+        assertThat(benchmark.getNanosPerDecryption().get(Algorithm.AES), greaterThan(0L));
+        assertThat(benchmark.getNanosPerDecryption(), hasKey(benchmark.getFastest()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void weRejectEmptyMeasurements() {
+        SymmetricAlgorithmSelfBenchmark.run(16, 0, 10);
+    }
+}
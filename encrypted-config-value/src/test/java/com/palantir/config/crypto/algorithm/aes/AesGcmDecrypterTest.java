@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.aes;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.nio.ByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class AesGcmDecrypterTest {
+    private static final String PLAINTEXT = "a secret that spans more than one block";
+
+    private KeyPair keyPair;
+    private AesEncryptedValue value;
+
+    @Before
+    public void before() {
+        keyPair = Algorithm.AES.newKeyPair();
+        value = (AesEncryptedValue) AesGcmEncrypter.INSTANCE.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    }
+
+    @Test
+    public void weCanDecryptSlicesOfASingleBuffer() {
+        byte[] iv = value.getIv();
+        byte[] ct = value.getCiphertext();
+        byte[] tag = value.getTag();
+        // pad the front so that none of the slices start at the beginning of the array
+        ByteBuffer buffer = ByteBuffer.allocate(3 + iv.length + ct.length + tag.length);
+        buffer.position(3);
+        buffer.put(iv).put(ct).put(tag);
+
+        ByteBuffer ivSlice = slice(buffer, 3, iv.length);
+        ByteBuffer ctSlice = slice(buffer, 3 + iv.length, ct.length);
+        ByteBuffer tagSlice = slice(buffer, 3 + iv.length + ct.length, tag.length);
+
+        assertThat(AesGcmDecrypter.decrypt(keyPair.decryptionKey(), ivSlice, ctSlice, tagSlice), is(PLAINTEXT));
+        assertThat(ctSlice.remaining(), is(ct.length));
+    }
+
+    @Test
+    public void weCanDecryptDirectBuffers() {
+        assertThat(AesGcmDecrypter.decrypt(keyPair.decryptionKey(),
+                direct(value.getIv()), direct(value.getCiphertext()), direct(value.getTag())), is(PLAINTEXT));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weCannotDecryptWithAModifiedTag() {
+        byte[] tag = value.getTag();
+        tag[0] ^= 1;
+        AesGcmDecrypter.decrypt(keyPair.decryptionKey(),
+                ByteBuffer.wrap(value.getIv()), ByteBuffer.wrap(value.getCiphertext()), ByteBuffer.wrap(tag));
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice();
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+}
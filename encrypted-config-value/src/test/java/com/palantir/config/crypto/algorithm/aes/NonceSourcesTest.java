@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.aes;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import com.palantir.config.crypto.algorithm.Encrypter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public final class NonceSourcesTest {
+    private static final int NONCE_SIZE_BYTES = 12;
+    private static final int COUNT = 10_000;
+
+    @Test
+    public void perThreadRandomNoncesAreUnique() {
+        assertAllUnique(NonceSources.perThreadRandom());
+    }
+
+    @Test
+    public void prefixedCounterNoncesAreUnique() {
+        assertAllUnique(NonceSources.prefixedCounter());
+    }
+
+    @Test
+    public void prefixedCounterKeepsItsPrefixAndIncrements() {
+        NonceSource source = NonceSources.prefixedCounter();
+        byte[] first = new byte[NONCE_SIZE_BYTES];
+        byte[] second = new byte[NONCE_SIZE_BYTES];
+        source.nextNonce(first);
+        source.nextNonce(second);
+
+        assertThat(Arrays.copyOf(second, 4), is(Arrays.copyOf(first, 4)));
+        assertThat(ByteBuffer.wrap(second, 4, 8).getLong(), is(ByteBuffer.wrap(first, 4, 8).getLong() + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prefixedCounterRejectsNoncesOfTheWrongSize() {
+        NonceSources.prefixedCounter().nextNonce(new byte[16]);
+    }
+
+    @Test
+    public void weCanDecryptValuesEncryptedWithACustomNonceSource() {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        Encrypter encrypter = AesGcmEncrypter.withNonceSource(NonceSources.prefixedCounter());
+
+        EncryptedValue first = encrypter.encrypt(keyPair.encryptionKey(), "plaintext");
+        EncryptedValue second = encrypter.encrypt(keyPair.encryptionKey(), "plaintext");
+
+        assertThat(first.decrypt(keyPair.decryptionKey()), is("plaintext"));
+        assertThat(second.decrypt(keyPair.decryptionKey()), is("plaintext"));
+        assertThat(second.toString(), is(not(first.toString())));
+    }
+
+    private static void assertAllUnique(NonceSource source) {
+        Set<ByteBuffer> seen = new HashSet<>();
+        for (int i = 0; i < COUNT; i++) {
+            byte[] nonce = new byte[NONCE_SIZE_BYTES];
+            source.nextNonce(nonce);
+            seen.add(ByteBuffer.wrap(nonce));
+        }
+        assertThat(seen.size(), is(COUNT));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.chacha20;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import org.junit.Test;
+
+public final class ChaCha20Poly1305EncrypterTest {
+    private static final String PLAINTEXT = "a secret";
+
+    private final KeyPair keyPair = Algorithm.CHACHA20_POLY1305.newKeyPair();
+
+    @Test
+    public void keysAreSymmetricAndReadFromTheirStringForm() {
+        KeyWithType key = KeyWithType.fromString(keyPair.encryptionKey().toString());
+
+        assertThat(key.toString(), is(keyPair.encryptionKey().toString()));
+        assertThat(keyPair.decryptionKey().toString(), is(keyPair.encryptionKey().toString()));
+    }
+
+    @Test
+    public void valuesHaveAFreshNonceAndAFullTag() {
+        assumeTrue(Algorithm.CHACHA20_POLY1305.isSupported());
+
+        ChaCha20Poly1305EncryptedValue value = encrypt();
+
+        assertThat(value.getNonce().length, is(ChaCha20Poly1305Encrypter.NONCE_SIZE_BYTES));
+        assertThat(value.getTag().length, is(ChaCha20Poly1305Encrypter.TAG_SIZE_BYTES));
+        assertThat(value.getCiphertext().length, is(PLAINTEXT.length()));
+        assertThat(value.decrypt(keyPair.decryptionKey()), is(PLAINTEXT));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weRejectValuesWithAModifiedTag() {
+        assumeTrue(Algorithm.CHACHA20_POLY1305.isSupported());
+
+        ChaCha20Poly1305EncryptedValue value = encrypt();
+        byte[] tag = value.getTag();
+        tag[0] ^= 1;
+
+        ImmutableChaCha20Poly1305EncryptedValue.copyOf(value).withTag(tag).decrypt(keyPair.decryptionKey());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weCannotDecryptWithAnotherKey() {
+        assumeTrue(Algorithm.CHACHA20_POLY1305.isSupported());
+
+        encrypt().decrypt(Algorithm.CHACHA20_POLY1305.newKeyPair().decryptionKey());
+    }
+
+    @Test
+    public void valuesAreReadFromTheirStringForm() {
+        assumeTrue(Algorithm.CHACHA20_POLY1305.isSupported());
+
+        EncryptedValue value = EncryptedValue.fromString(encrypt().toString());
+
+        assertThat(value.decrypt(keyPair.decryptionKey()), is(PLAINTEXT));
+    }
+
+    private ChaCha20Poly1305EncryptedValue encrypt() {
+        return (ChaCha20Poly1305EncryptedValue) ChaCha20Poly1305Encrypter.INSTANCE
+                .encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    }
+}
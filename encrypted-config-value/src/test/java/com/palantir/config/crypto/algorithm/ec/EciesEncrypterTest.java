@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.ec;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.KeyWithType;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class EciesEncrypterTest {
+    private static final String PLAINTEXT = "a secret";
+
+    private KeyPair keyPair;
+    private EciesEncryptedValue value;
+
+    @Before
+    public void before() {
+        keyPair = Algorithm.EC.newKeyPair();
+        value = (EciesEncryptedValue) EciesEncrypter.INSTANCE.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+    }
+
+    @Test
+    public void keysCanBeReadFromTheirStringForm() {
+        KeyWithType encryptionKey = KeyWithType.fromString(keyPair.encryptionKey().toString());
+        KeyWithType decryptionKey = KeyWithType.fromString(keyPair.decryptionKey().toString());
+
+        EncryptedValue encrypted = EciesEncrypter.INSTANCE.encrypt(encryptionKey, PLAINTEXT);
+
+        assertThat(encrypted.decrypt(decryptionKey), is(PLAINTEXT));
+        assertThat(value.decrypt(decryptionKey), is(PLAINTEXT));
+    }
+
+    @Test
+    public void valuesAreSmallerThanRsaValues() {
+        KeyPair rsaKeyPair = Algorithm.RSA.newKeyPair();
+        EncryptedValue rsaValue = Algorithm.RSA.newEncrypter().encrypt(rsaKeyPair.encryptionKey(), PLAINTEXT);
+
+        assertThat(value.toString().length(), lessThan(rsaValue.toString().length()));
+    }
+
+    @Test
+    public void ephemeralKeysAreUncompressedPoints() {
+        assertThat(value.getEphemeralKey().length, is(65));
+        assertThat(value.getEphemeralKey()[0], is((byte) 4));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weRejectEphemeralKeysThatAreNotOnTheCurve() {
+        byte[] ephemeralKey = value.getEphemeralKey();
+        ephemeralKey[64] ^= 1;
+
+        ImmutableEciesEncryptedValue.copyOf(value).withEphemeralKey(ephemeralKey).decrypt(keyPair.decryptionKey());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weCannotDecryptWithAnotherKey() {
+        value.decrypt(Algorithm.EC.newKeyPair().decryptionKey());
+    }
+}
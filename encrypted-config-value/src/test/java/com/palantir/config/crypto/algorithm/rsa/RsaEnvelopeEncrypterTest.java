@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.algorithm.rsa;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.palantir.config.crypto.DecryptionResult;
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class RsaEnvelopeEncrypterTest {
+    private static final String PLAINTEXT = "a secret";
+
+    private KeyPair keyPair;
+
+    @Before
+    public void before() {
+        keyPair = Algorithm.RSA_ENVELOPE.newKeyPair();
+    }
+
+    @Test
+    public void valuesEncryptedTogetherShareADataKey() {
+        List<EncryptedValue> values = RsaEnvelopeEncrypter.INSTANCE.encryptAll(
+                keyPair.encryptionKey(), ImmutableList.of(PLAINTEXT, PLAINTEXT));
+
+        assertThat(wrappedKey(values.get(0)), is(wrappedKey(values.get(1))));
+        assertThat(values.get(0).toString(), is(not(values.get(1).toString())));
+    }
+
+    @Test
+    public void valuesEncryptedSeparatelyHaveTheirOwnDataKeys() {
+        EncryptedValue value1 = RsaEnvelopeEncrypter.INSTANCE.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+        EncryptedValue value2 = RsaEnvelopeEncrypter.INSTANCE.encrypt(keyPair.encryptionKey(), PLAINTEXT);
+
+        assertThat(wrappedKey(value1), is(not(wrappedKey(value2))));
+    }
+
+    @Test
+    public void dataKeysAreUnwrappedOncePerPrivateKey() {
+        List<EncryptedValue> values = RsaEnvelopeEncrypter.INSTANCE.encryptAll(
+                keyPair.encryptionKey(), ImmutableList.of("a", "b", "c"));
+        RsaPrivateKey privateKey = (RsaPrivateKey) keyPair.decryptionKey().getKey();
+
+        List<DecryptionResult> results = EncryptedValue.decryptAll(keyPair.decryptionKey(), values);
+
+        assertThat(results.get(0).getOrThrow(), is("a"));
+        assertThat(results.get(1).getOrThrow(), is("b"));
+        assertThat(results.get(2).getOrThrow(), is("c"));
+        assertThat(privateKey.getDataKeys().size(), is(1L));
+    }
+
+    @Test
+    public void valuesLargerThanTheRsaKeyCanBeEncrypted() {
+        String plaintext = Strings.repeat("0123456789", 1000);
+
+        EncryptedValue value = RsaEnvelopeEncrypter.INSTANCE.encrypt(keyPair.encryptionKey(), plaintext);
+
+        assertThat(EncryptedValue.fromString(value.toString()).decrypt(keyPair.decryptionKey()), is(plaintext));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void weCannotDecryptWithAModifiedWrappedKey() {
+        RsaEnvelopeEncryptedValue value = (RsaEnvelopeEncryptedValue) RsaEnvelopeEncrypter.INSTANCE.encrypt(
+                keyPair.encryptionKey(), PLAINTEXT);
+        byte[] wrappedKey = value.getWrappedKey();
+        wrappedKey[0] ^= 1;
+
+        ImmutableRsaEnvelopeEncryptedValue.copyOf(value).withWrappedKey(wrappedKey).decrypt(keyPair.decryptionKey());
+    }
+
+    private static String wrappedKey(EncryptedValue value) {
+        return BaseEncoding.base64().encode(((RsaEnvelopeEncryptedValue) value).getWrappedKey());
+    }
+}
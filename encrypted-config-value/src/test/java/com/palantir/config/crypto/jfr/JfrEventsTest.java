@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2018 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.config.crypto.jfr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.palantir.config.crypto.EncryptedValue;
+import com.palantir.config.crypto.KeyFileUtils;
+import com.palantir.config.crypto.KeyPair;
+import com.palantir.config.crypto.algorithm.Algorithm;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public final class JfrEventsTest {
+    private static final String PLAINTEXT = "a secret";
+    private static final String PREFIX = "com.palantir.config.crypto.";
+    private static final List<String> EVENT_NAMES =
+            Arrays.asList("KeyLoad", "ValueParse", "Decryption", "ConfigSubstitution", "ValueSubstitution");
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void keyLoadsAreRecorded() throws IOException {
+        Path keyFile = temporaryFolder.getRoot().toPath().resolve("test.key");
+        KeyFileUtils.keyPairToFile(Algorithm.RSA.newKeyPair(), keyFile);
+
+        List<RecordedEvent> events = record(() -> KeyFileUtils.keyPairFromPath(keyFile), "KeyLoad");
+
+        assertThat(events.size(), is(1));
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("source"), is("file"));
+        assertThat(event.getString("location"), is(keyFile.toString()));
+        assertThat(event.getString("encryptionKeyType"), is("RSA-PUB"));
+        assertThat(event.getString("decryptionKeyType"), is("RSA-PRIV"));
+        assertThat(event.getLong("decryptionKeyBytes") > 0, is(true));
+        assertThat(event.getString("failure"), is(nullValue()));
+    }
+
+    @Test
+    public void parsesAndDecryptionsAreRecordedWithoutPlaintexts() throws IOException {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        String value = Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT).toString();
+
+        List<RecordedEvent> events = record(
+                () -> EncryptedValue.fromString(value).decrypt(keyPair.decryptionKey()), "ValueParse", "Decryption");
+
+        assertThat(names(events), contains("ValueParse", "Decryption"));
+        assertThat(events.get(0).getString("algorithm"), is("AES"));
+        assertThat(events.get(0).getLong("bytes"), is((long) value.length()));
+        assertThat(events.get(1).getString("algorithm"), is("AES"));
+        assertThat(events.get(1).getString("keyType"), is("AES"));
+        assertThat(events.get(1).getLong("ciphertextBytes"), is((long) PLAINTEXT.length()));
+        for (RecordedEvent event : events) {
+            assertThat(event.toString(), not(containsString(PLAINTEXT)));
+        }
+    }
+
+    @Test
+    public void batchDecryptionsAreRecorded() throws IOException {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        List<EncryptedValue> values = Arrays.asList(
+                Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT),
+                Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT));
+
+        List<RecordedEvent> events =
+                record(() -> EncryptedValue.decryptAll(keyPair.decryptionKey(), values), "Decryption");
+
+        assertThat(names(events), contains("Decryption", "Decryption"));
+        assertThat(events.get(0).getString("algorithm"), is("AES"));
+        assertThat(events.get(0).getString("failure"), is(nullValue()));
+    }
+
+    @Test
+    public void failuresAreRecorded() throws IOException {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        KeyPair otherKeyPair = Algorithm.AES.newKeyPair();
+        EncryptedValue value = Algorithm.AES.newEncrypter().encrypt(otherKeyPair.encryptionKey(), PLAINTEXT);
+
+        List<RecordedEvent> events = record(() -> {
+            try {
+                value.decrypt(keyPair.decryptionKey());
+                fail();
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }, "Decryption");
+
+        assertThat(events.size(), is(1));
+        assertThat(events.get(0).getString("failure"), is(not(nullValue())));
+    }
+
+    @Test
+    public void nothingIsRecordedWhileTheEventsAreDisabled() throws IOException {
+        KeyPair keyPair = Algorithm.AES.newKeyPair();
+        String value = Algorithm.AES.newEncrypter().encrypt(keyPair.encryptionKey(), PLAINTEXT).toString();
+
+        List<RecordedEvent> events = record(
+                () -> assertThat(EncryptedValue.fromString(value).decrypt(keyPair.decryptionKey()), is(PLAINTEXT)));
+
+        assertThat(events, is(empty()));
+    }
+
+    private List<RecordedEvent> record(Operation operation, String... eventNames) throws IOException {
+        Path dump = temporaryFolder.newFile().toPath();
+        try (Recording recording = new Recording()) {
+            // events are enabled by default, so only record the requested ones
+            EVENT_NAMES.forEach(eventName -> recording.disable(PREFIX + eventName));
+            for (String eventName : eventNames) {
+                recording.enable(PREFIX + eventName).withoutThreshold();
+            }
+            recording.start();
+            operation.run();
+            recording.stop();
+            recording.dump(dump);
+        }
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().startsWith(PREFIX))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getEventType().getName().substring(PREFIX.length()))
+                .collect(Collectors.toList());
+    }
+
+    private interface Operation {
+        void run() throws IOException;
+    }
+}